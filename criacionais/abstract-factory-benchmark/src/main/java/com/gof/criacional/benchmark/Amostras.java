@@ -0,0 +1,29 @@
+package com.gof.criacional.benchmark;
+
+/**
+ * Dados sintéticos usados pelos benchmarks.
+ */
+final class Amostras {
+  private Amostras() {
+  }
+
+  static String nome(int tamanho) {
+    StringBuilder nome = new StringBuilder(tamanho);
+    String base = "Maria Santos Silva ";
+    while (nome.length() < tamanho) {
+      nome.append(base);
+    }
+    nome.setLength(tamanho);
+    return nome.toString().strip();
+  }
+
+  static String cliente(String origem, int tamanhoNome) {
+    String nome = nome(tamanhoNome);
+    return switch (origem) {
+      case "csv" -> nome + ",98765432100";
+      case "xml" -> "<cliente><nome>" + nome + "</nome><cpf>98765432100</cpf></cliente>";
+      case "fixo" -> String.format("%-18.18s%011d", nome, 98765432100L);
+      default -> throw new IllegalArgumentException("Origem sem amostra: " + origem);
+    };
+  }
+}
@@ -0,0 +1,67 @@
+package com.gof.criacional.benchmark;
+
+import com.gof.criacional.decoder.csv.RegistrarClienteCSVDecoder;
+import com.gof.criacional.modelo.Cliente;
+import com.gof.criacional.modelo.Cpf;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RegistrarClienteCSVDecoder} com registros de tamanhos diferentes, tanto
+ * mensagem a mensagem quanto em streaming de um lote.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CSVDecoderBenchmark {
+  private static final int REGISTROS_POR_LOTE = 10_000;
+
+  @Param({"16", "256", "4096"})
+  public int tamanhoNome;
+
+  private RegistrarClienteCSVDecoder decoder;
+  private String mensagem;
+  private byte[] lote;
+
+  @Setup(Level.Trial)
+  public void preparar() {
+    decoder = new RegistrarClienteCSVDecoder();
+    mensagem = Amostras.nome(tamanhoNome) + ",98765432100";
+    StringBuilder csv = new StringBuilder();
+    for (int i = 0; i < REGISTROS_POR_LOTE; i++) {
+      csv.append('"').append(Amostras.nome(tamanhoNome)).append(", ").append(i).append("\",")
+          .append(Cpf.completar(100_000_000L + i)).append('\n');
+    }
+    lote = csv.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Benchmark
+  public Cliente mensagem() {
+    return decoder.decode(mensagem);
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  public long lote(Blackhole bh) throws IOException {
+    return decoder.decode(new ByteArrayInputStream(lote), bh::consume);
+  }
+}
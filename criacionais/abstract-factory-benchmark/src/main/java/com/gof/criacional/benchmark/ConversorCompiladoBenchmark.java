@@ -0,0 +1,117 @@
+package com.gof.criacional.benchmark;
+
+import com.gof.criacional.decoder.csv.LeitorCSV;
+import com.gof.criacional.decoder.textofixo.LayoutTextoFixo;
+import com.gof.criacional.decoder.textofixo.LayoutTextoFixo.Coluna;
+import com.gof.criacional.decoder.textofixo.LayoutTextoFixo.TipoColuna;
+import com.gof.criacional.decoder.textofixo.LeitorTextoFixo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversão de registros com inteiro, decimal e data: caminho genérico (índice
+ * + {@code toString()} + {@code parse}) × conversor compilado com
+ * {@link com.gof.criacional.decoder.ConversorCompilado}, em CSV e texto fixo.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConversorCompiladoBenchmark {
+  private static final int REGISTROS = 10_000;
+
+  public record Lancamento(String descricao, int parcela, BigDecimal valor, LocalDate data) {
+  }
+
+  private static final LayoutTextoFixo LAYOUT = LayoutTextoFixo.of(
+      new Coluna("data", 0, 8, TipoColuna.NUMERICO),
+      new Coluna("descricao", 8, 20, TipoColuna.TEXTO),
+      new Coluna("valor", 28, 12, TipoColuna.TEXTO),
+      new Coluna("parcela", 40, 3, TipoColuna.NUMERICO));
+
+  private static final MethodHandle CONVERSOR_CSV = LeitorCSV.conversor(Lancamento.class, "data", "descricao", "valor", "parcela");
+  private static final MethodHandle CONVERSOR_FIXO = LeitorTextoFixo.conversor(Lancamento.class, LAYOUT);
+
+  private byte[] csv;
+  private ByteBuffer fixo;
+  private LeitorCSV leitorCSV;
+  private LeitorTextoFixo leitorFixo;
+
+  @Setup(Level.Trial)
+  public void preparar() {
+    StringBuilder linhasCSV = new StringBuilder();
+    StringBuilder linhasFixo = new StringBuilder();
+    for (int i = 0; i < REGISTROS; i++) {
+      LocalDate data = LocalDate.of(2024, 1, 1).plusDays(i % 365);
+      String valor = (i * 37 % 100_000) + "." + String.format("%02d", i % 100);
+      linhasCSV.append(data).append(",Compra ").append(i).append(',').append(valor).append(',').append(i % 12 + 1).append('\n');
+      linhasFixo.append(String.format("%s%-20s%12s%03d%n", data.format(DateTimeFormatter.BASIC_ISO_DATE), "Compra " + i,
+          valor, i % 12 + 1));
+    }
+    csv = linhasCSV.toString().getBytes(StandardCharsets.UTF_8);
+    fixo = ByteBuffer.wrap(linhasFixo.toString().getBytes(StandardCharsets.ISO_8859_1));
+    leitorCSV = new LeitorCSV(new ByteArrayInputStream(csv));
+    leitorFixo = new LeitorTextoFixo(LAYOUT);
+  }
+
+  @Benchmark
+  public void csvGenerico(Blackhole bh) throws IOException {
+    LeitorCSV leitor = leitorCSV;
+    leitor.reiniciar(new ByteArrayInputStream(csv));
+    while (leitor.proximoRegistro()) {
+      bh.consume(new Lancamento(leitor.campo(1).toString(), Integer.parseInt(leitor.campo(3).toString()),
+          new BigDecimal(leitor.campo(2).toString()), LocalDate.parse(leitor.campo(0).toString())));
+    }
+  }
+
+  @Benchmark
+  public void csvCompilado(Blackhole bh) throws Throwable {
+    LeitorCSV leitor = leitorCSV;
+    leitor.reiniciar(new ByteArrayInputStream(csv));
+    while (leitor.proximoRegistro()) {
+      bh.consume((Lancamento) CONVERSOR_CSV.invokeExact(leitor));
+    }
+  }
+
+  @Benchmark
+  public void fixoGenerico(Blackhole bh) throws IOException {
+    LeitorTextoFixo leitor = leitorFixo;
+    leitor.reiniciar(fixo);
+    while (leitor.proximoRegistro()) {
+      bh.consume(new Lancamento(leitor.campo(1).toString(), Integer.parseInt(leitor.campo(3).toString()),
+          new BigDecimal(leitor.campo(2).toString()),
+          LocalDate.parse(leitor.campo(0).toString(), DateTimeFormatter.BASIC_ISO_DATE)));
+    }
+  }
+
+  @Benchmark
+  public void fixoCompilado(Blackhole bh) throws Throwable {
+    LeitorTextoFixo leitor = leitorFixo;
+    leitor.reiniciar(fixo);
+    while (leitor.proximoRegistro()) {
+      bh.consume((Lancamento) CONVERSOR_FIXO.invokeExact(leitor));
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package com.gof.criacional.benchmark;
+
+import com.gof.criacional.decoder.DecoderTemplate;
+import com.gof.criacional.decoder.csv.CSVDecoderTemplate;
+import com.gof.criacional.decoder.textofixo.TextoFixoDecoderTemplate;
+import com.gof.criacional.decoder.xml.XMLDecoderTemplate;
+import com.gof.criacional.modelo.Cliente;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminho completo de {@link DecoderTemplate#registrarCliente}: lookup da factory,
+ * obtenção do decoder e decodificação, para cada formato e número de threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DecoderTemplateBenchmark {
+  @Param({"csv", "xml", "fixo"})
+  public String origem;
+
+  @Param({"16", "256"})
+  public int tamanhoNome;
+
+  private DecoderTemplate template;
+  private String mensagem;
+
+  @Setup(Level.Trial)
+  public void preparar() {
+    template = switch (origem) {
+      case "csv" -> new CSVDecoderTemplate();
+      case "xml" -> new XMLDecoderTemplate();
+      default -> new TextoFixoDecoderTemplate();
+    };
+    mensagem = Amostras.cliente(origem, tamanhoNome);
+  }
+
+  @Benchmark
+  @Threads(1)
+  public Cliente umaThread() {
+    return template.registrarCliente(mensagem);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public Cliente quatroThreads() {
+    return template.registrarCliente(mensagem);
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public Cliente todasThreads() {
+    return template.registrarCliente(mensagem);
+  }
+}
@@ -0,0 +1,74 @@
+package com.gof.criacional.benchmark;
+
+import com.gof.criacional.decoder.EntradaDescompactada;
+import com.gof.criacional.decoder.csv.RegistrarClienteCSVDecoder;
+import com.gof.criacional.modelo.Cpf;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Lote CSV compactado com gzip: descompactação na mesma thread do decoder
+ * ({@link GZIPInputStream} direto) × pipeline da {@link EntradaDescompactada}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DescompactacaoBenchmark {
+  private static final int REGISTROS = 200_000;
+
+  @Param({"16", "256"})
+  public int tamanhoNome;
+
+  private RegistrarClienteCSVDecoder decoder;
+  private byte[] compactado;
+
+  @Setup(Level.Trial)
+  public void preparar() throws IOException {
+    decoder = new RegistrarClienteCSVDecoder();
+    ByteArrayOutputStream saida = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzip = new GZIPOutputStream(saida, 64 * 1024)) {
+      for (int i = 0; i < REGISTROS; i++) {
+        gzip.write((Amostras.nome(tamanhoNome) + " " + i + "," + Cpf.completar(100_000_000L + i) + "\n")
+            .getBytes(StandardCharsets.UTF_8));
+      }
+    }
+    compactado = saida.toByteArray();
+  }
+
+  @Benchmark
+  public long sequencial(Blackhole bh) throws IOException {
+    try (InputStream entrada = new GZIPInputStream(new ByteArrayInputStream(compactado), 64 * 1024)) {
+      return decoder.decode(entrada, bh::consume);
+    }
+  }
+
+  @Benchmark
+  public long pipeline(Blackhole bh) throws IOException {
+    try (InputStream entrada = EntradaDescompactada.abrir(new ByteArrayInputStream(compactado))) {
+      return decoder.decode(entrada, bh::consume);
+    }
+  }
+}
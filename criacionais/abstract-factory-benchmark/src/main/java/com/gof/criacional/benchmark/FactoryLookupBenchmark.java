@@ -0,0 +1,84 @@
+package com.gof.criacional.benchmark;
+
+import com.gof.criacional.factory.DecoderFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede a escalabilidade de {@link DecoderFactory#fabricaParaOrigem(String)} com
+ * 1, 4 e todas as threads disponíveis, comparando com o antigo
+ * {@code synchronized getInstance()}.
+ *
+ * Com o holder idiom a vazão total deve crescer linearmente com o número de
+ * threads; a versão sincronizada estabiliza ou cai por contenção no monitor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FactoryLookupBenchmark {
+  private String origem = "csv";
+
+  @Benchmark
+  @Threads(1)
+  public DecoderFactory holder1Thread() {
+    return DecoderFactory.fabricaParaOrigem(origem);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public DecoderFactory holder4Threads() {
+    return DecoderFactory.fabricaParaOrigem(origem);
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public DecoderFactory holderTodasThreads() {
+    return DecoderFactory.fabricaParaOrigem(origem);
+  }
+
+  @Benchmark
+  @Threads(1)
+  public Object sincronizado1Thread() {
+    return SingletonSincronizado.getInstance();
+  }
+
+  @Benchmark
+  @Threads(4)
+  public Object sincronizado4Threads() {
+    return SingletonSincronizado.getInstance();
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public Object sincronizadoTodasThreads() {
+    return SingletonSincronizado.getInstance();
+  }
+
+  // Reproduz a implementação anterior das factories, para comparação
+  static final class SingletonSincronizado {
+    private static SingletonSincronizado instance;
+
+    private SingletonSincronizado() {
+    }
+
+    static synchronized SingletonSincronizado getInstance() {
+      if (instance == null) {
+        instance = new SingletonSincronizado();
+      }
+      return instance;
+    }
+  }
+}
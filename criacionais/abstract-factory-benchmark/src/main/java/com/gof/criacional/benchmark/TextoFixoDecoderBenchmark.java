@@ -0,0 +1,99 @@
+package com.gof.criacional.benchmark;
+
+import com.gof.criacional.decoder.textofixo.LayoutTextoFixo;
+import com.gof.criacional.decoder.textofixo.LeitorTextoFixo;
+import com.gof.criacional.decoder.textofixo.RegistrarClienteTextoFixoDecoder;
+import com.gof.criacional.modelo.Cliente;
+import com.gof.criacional.modelo.Cpf;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o leitor de texto fixo mapeado em memória com a abordagem ingênua
+ * de {@link BufferedReader} + {@code substring}, e mede o decoder de texto fixo
+ * mensagem a mensagem.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TextoFixoDecoderBenchmark {
+  @Param({"1000000"})
+  public int registros;
+
+  private Path arquivo;
+  private LeitorTextoFixo leitor;
+  private RegistrarClienteTextoFixoDecoder decoder;
+
+  @Setup(Level.Trial)
+  public void gerarArquivo() throws IOException {
+    arquivo = Files.createTempFile("clientes-fixo", ".txt");
+    try (BufferedWriter escritor = Files.newBufferedWriter(arquivo, StandardCharsets.ISO_8859_1)) {
+      for (int i = 0; i < registros; i++) {
+        escritor.write(String.format("%-18s%011d%n", "Cliente " + i, Cpf.completar(100_000_000L + i)));
+      }
+    }
+    leitor = new LeitorTextoFixo(LayoutTextoFixo.CLIENTE);
+    decoder = new RegistrarClienteTextoFixoDecoder();
+  }
+
+  @TearDown(Level.Trial)
+  public void removerArquivo() throws IOException {
+    leitor.close();
+    Files.deleteIfExists(arquivo);
+  }
+
+  @Benchmark
+  public long mapeadoEmMemoria(Blackhole bh) throws IOException {
+    long lidos = 0;
+    leitor.abrir(arquivo);
+    while (leitor.proximoRegistro()) {
+      bh.consume(leitor.campo(0).tamanho());
+      bh.consume(leitor.campo(1).byteEm(0));
+      lidos++;
+    }
+    leitor.close();
+    return lidos;
+  }
+
+  @Benchmark
+  public long bufferedReaderComSubstring(Blackhole bh) throws IOException {
+    long lidos = 0;
+    try (BufferedReader leitorLinhas = Files.newBufferedReader(arquivo, StandardCharsets.ISO_8859_1)) {
+      String linha;
+      while ((linha = leitorLinhas.readLine()) != null) {
+        bh.consume(linha.substring(0, 18).trim());
+        bh.consume(linha.substring(18, 29).trim());
+        lidos++;
+      }
+    }
+    return lidos;
+  }
+
+  @Benchmark
+  public Cliente decoderMensagem() {
+    return decoder.decode("Pedro Costa       45612378955");
+  }
+}
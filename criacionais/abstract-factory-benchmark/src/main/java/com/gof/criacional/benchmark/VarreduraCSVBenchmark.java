@@ -0,0 +1,74 @@
+package com.gof.criacional.benchmark;
+
+import com.gof.criacional.decoder.csv.LeitorCSV;
+import com.gof.criacional.decoder.csv.ModoVarredura;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Varredura de delimitadores do {@link LeitorCSV}: laço escalar × Vector API,
+ * com registros estreitos (campos curtos) e largos (campos de centenas de bytes,
+ * alguns entre aspas).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class VarreduraCSVBenchmark {
+  private static final int REGISTROS = 10_000;
+
+  @Param({"ESCALAR", "VETORIAL"})
+  private ModoVarredura modo;
+
+  @Param({"estreito", "largo"})
+  private String registro;
+
+  private byte[] csv;
+  private LeitorCSV leitor;
+
+  @Setup(Level.Trial)
+  public void preparar() {
+    if (!modo.isDisponivel()) {
+      throw new IllegalStateException("Vector API indisponível; rode com --add-modules=jdk.incubator.vector");
+    }
+    StringBuilder linhas = new StringBuilder();
+    for (int i = 0; i < REGISTROS; i++) {
+      if (registro.equals("estreito")) {
+        linhas.append("Cliente ").append(i).append(',').append(10_000_000_000L + i).append(",ativo\n");
+      } else {
+        String texto = ("Observação " + i + ' ').repeat(24);
+        linhas.append(texto).append(',').append('"').append(texto).append(", com vírgula\"").append(',')
+            .append(10_000_000_000L + i).append(',').append(texto).append('\n');
+      }
+    }
+    csv = linhas.toString().getBytes(StandardCharsets.UTF_8);
+    leitor = new LeitorCSV(new ByteArrayInputStream(csv), ',', StandardCharsets.UTF_8, modo);
+  }
+
+  @Benchmark
+  public void varrer(Blackhole bh) throws IOException {
+    LeitorCSV leitor = this.leitor;
+    leitor.reiniciar(new ByteArrayInputStream(csv));
+    while (leitor.proximoRegistro()) {
+      bh.consume(leitor.campo(leitor.quantidadeCampos() - 1));
+    }
+  }
+}
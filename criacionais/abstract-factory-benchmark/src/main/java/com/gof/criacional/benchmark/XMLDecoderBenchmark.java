@@ -0,0 +1,66 @@
+package com.gof.criacional.benchmark;
+
+import com.gof.criacional.decoder.xml.RegistrarContaXMLDecoder;
+import com.gof.criacional.modelo.Conta;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RegistrarContaXMLDecoder} com registros de tamanhos diferentes, tanto
+ * mensagem a mensagem quanto percorrendo um documento {@code <contas>} com StAX.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class XMLDecoderBenchmark {
+  private static final int REGISTROS_POR_DOCUMENTO = 10_000;
+
+  @Param({"16", "256", "4096"})
+  public int tamanhoTipo;
+
+  private RegistrarContaXMLDecoder decoder;
+  private String mensagem;
+  private byte[] documento;
+
+  @Setup(Level.Trial)
+  public void preparar() {
+    decoder = new RegistrarContaXMLDecoder();
+    mensagem = "<conta><numero>001</numero><tipo>" + Amostras.nome(tamanhoTipo) + "</tipo></conta>";
+    StringBuilder xml = new StringBuilder("<contas>");
+    for (int i = 0; i < REGISTROS_POR_DOCUMENTO; i++) {
+      xml.append("<conta><numero>").append(i).append("</numero><tipo>")
+          .append(Amostras.nome(tamanhoTipo)).append("</tipo></conta>");
+    }
+    documento = xml.append("</contas>").toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Benchmark
+  public Conta mensagem() {
+    return decoder.decode(mensagem);
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  public long documento(Blackhole bh) throws IOException {
+    return decoder.decode(new ByteArrayInputStream(documento), bh::consume);
+  }
+}
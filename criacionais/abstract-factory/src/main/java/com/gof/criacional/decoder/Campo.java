@@ -0,0 +1,247 @@
+package com.gof.criacional.decoder;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+/**
+ * Visão reutilizável sobre um trecho de bytes de um registro.
+ *
+ * Os leitores apontam a mesma instância para cada novo registro, evitando
+ * alocar uma String por campo. A conversão para texto só acontece quando
+ * {@link #toString()} é chamado.
+ */
+public final class Campo {
+  private final Charset charset;
+  private ByteBuffer buffer;
+  private int inicio;
+  private int tamanho;
+  private byte[] copia;
+
+  public Campo(Charset charset) {
+    this.charset = charset;
+  }
+
+  public void apontar(ByteBuffer buffer, int inicio, int tamanho) {
+    this.buffer = buffer;
+    this.inicio = inicio;
+    this.tamanho = tamanho;
+  }
+
+  public int tamanho() {
+    return tamanho;
+  }
+
+  public boolean isVazio() {
+    return tamanho == 0;
+  }
+
+  public byte byteEm(int indice) {
+    if (indice < 0 || indice >= tamanho) {
+      throw new IndexOutOfBoundsException("Índice " + indice + " fora do campo de tamanho " + tamanho);
+    }
+    return buffer.get(inicio + indice);
+  }
+
+  /**
+   * Indica se o campo tem ao menos um byte e apenas dígitos ASCII.
+   */
+  public boolean isNumerico() {
+    if (tamanho == 0) {
+      return false;
+    }
+    for (int i = 0; i < tamanho; i++) {
+      byte b = buffer.get(inicio + i);
+      if (b < '0' || b > '9') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Converte o campo em {@code long} direto dos bytes, sem criar String.
+   * Aceita sinal opcional ({@code +} ou {@code -}) seguido apenas de dígitos.
+   *
+   * @throws IllegalArgumentException se o campo não for um inteiro válido
+   */
+  public long paraLong() {
+    int i = 0;
+    boolean negativo = false;
+    if (tamanho > 0 && (buffer.get(inicio) == '-' || buffer.get(inicio) == '+')) {
+      negativo = buffer.get(inicio) == '-';
+      i = 1;
+    }
+    if (i == tamanho) {
+      throw new IllegalArgumentException("Valor inteiro vazio ou sem dígitos: '" + this + "'");
+    }
+    long valor = 0;
+    for (; i < tamanho; i++) {
+      int digito = buffer.get(inicio + i) - '0';
+      if (digito < 0 || digito > 9) {
+        throw new IllegalArgumentException("Valor não numérico: '" + this + "'");
+      }
+      if (valor > (Long.MAX_VALUE - digito) / 10) {
+        throw new IllegalArgumentException("Valor excede o limite de long: '" + this + "'");
+      }
+      valor = valor * 10 + digito;
+    }
+    return negativo ? -valor : valor;
+  }
+
+  public int paraInt() {
+    long valor = paraLong();
+    if (valor < Integer.MIN_VALUE || valor > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Valor excede o limite de int: '" + this + "'");
+    }
+    return (int) valor;
+  }
+
+  /**
+   * Converte um valor decimal em inteiro escalado, sem String nem BigDecimal:
+   * com {@code casas = 2}, {@code "1234,5"} vira {@code 123450} (centavos).
+   * Aceita {@code .} ou {@code ,} como separador decimal e sinal opcional.
+   *
+   * @throws IllegalArgumentException se houver mais casas decimais que {@code casas}
+   *                                  ou o valor não couber em um long
+   */
+  public long paraEscalado(int casas) {
+    int i = 0;
+    boolean negativo = false;
+    if (tamanho > 0 && (buffer.get(inicio) == '-' || buffer.get(inicio) == '+')) {
+      negativo = buffer.get(inicio) == '-';
+      i = 1;
+    }
+    long valor = 0;
+    int decimais = -1;
+    boolean temDigito = false;
+    for (; i < tamanho; i++) {
+      byte b = buffer.get(inicio + i);
+      if ((b == '.' || b == ',') && decimais < 0) {
+        decimais = 0;
+        continue;
+      }
+      int digito = b - '0';
+      if (digito < 0 || digito > 9) {
+        throw new IllegalArgumentException("Valor decimal inválido: '" + this + "'");
+      }
+      if (decimais >= 0 && ++decimais > casas) {
+        throw new IllegalArgumentException("Valor com mais de " + casas + " casas decimais: '" + this + "'");
+      }
+      if (valor > (Long.MAX_VALUE - digito) / 10) {
+        throw new IllegalArgumentException("Valor excede o limite de long: '" + this + "'");
+      }
+      valor = valor * 10 + digito;
+      temDigito = true;
+    }
+    if (!temDigito) {
+      throw new IllegalArgumentException("Valor decimal sem dígitos: '" + this + "'");
+    }
+    for (int faltam = casas - Math.max(decimais, 0); faltam > 0; faltam--) {
+      if (valor > Long.MAX_VALUE / 10) {
+        throw new IllegalArgumentException("Valor excede o limite de long: '" + this + "'");
+      }
+      valor *= 10;
+    }
+    return negativo ? -valor : valor;
+  }
+
+  /**
+   * Converte o campo em {@link BigDecimal} sem passar por String. Aceita
+   * {@code .} ou {@code ,} como separador decimal e sinal opcional.
+   */
+  public BigDecimal paraDecimal() {
+    int i = 0;
+    boolean negativo = false;
+    if (tamanho > 0 && (buffer.get(inicio) == '-' || buffer.get(inicio) == '+')) {
+      negativo = buffer.get(inicio) == '-';
+      i = 1;
+    }
+    long valor = 0;
+    int escala = -1;
+    int digitos = 0;
+    for (; i < tamanho; i++) {
+      byte b = buffer.get(inicio + i);
+      if ((b == '.' || b == ',') && escala < 0) {
+        escala = 0;
+        continue;
+      }
+      int digito = b - '0';
+      if (digito < 0 || digito > 9) {
+        throw new IllegalArgumentException("Valor decimal inválido: '" + this + "'");
+      }
+      if (++digitos > 18) {
+        // Raro: mais dígitos do que cabem em um long
+        return new BigDecimal(toString().replace(',', '.'));
+      }
+      valor = valor * 10 + digito;
+      if (escala >= 0) {
+        escala++;
+      }
+    }
+    if (digitos == 0) {
+      throw new IllegalArgumentException("Valor decimal sem dígitos: '" + this + "'");
+    }
+    return BigDecimal.valueOf(negativo ? -valor : valor, Math.max(escala, 0));
+  }
+
+  /**
+   * Converte o campo em data, nos formatos {@code aaaa-MM-dd} ou {@code aaaaMMdd}.
+   */
+  public LocalDate paraData() {
+    try {
+      if (tamanho == 10 && buffer.get(inicio + 4) == '-' && buffer.get(inicio + 7) == '-') {
+        return LocalDate.of(digitos(0, 4), digitos(5, 2), digitos(8, 2));
+      }
+      if (tamanho == 8) {
+        return LocalDate.of(digitos(0, 4), digitos(4, 2), digitos(6, 2));
+      }
+    } catch (DateTimeException e) {
+      throw new IllegalArgumentException("Data inválida: '" + this + "'", e);
+    }
+    throw new IllegalArgumentException("Data fora do formato aaaa-MM-dd ou aaaaMMdd: '" + this + "'");
+  }
+
+  private int digitos(int de, int quantidade) {
+    int valor = 0;
+    for (int i = de; i < de + quantidade; i++) {
+      int digito = buffer.get(inicio + i) - '0';
+      if (digito < 0 || digito > 9) {
+        throw new IllegalArgumentException("Data com caractere não numérico: '" + this + "'");
+      }
+      valor = valor * 10 + digito;
+    }
+    return valor;
+  }
+
+  /**
+   * Remove espaços à esquerda e à direita apenas ajustando os limites da visão.
+   */
+  public Campo aparar() {
+    while (tamanho > 0 && buffer.get(inicio) == ' ') {
+      inicio++;
+      tamanho--;
+    }
+    while (tamanho > 0 && buffer.get(inicio + tamanho - 1) == ' ') {
+      tamanho--;
+    }
+    return this;
+  }
+
+  @Override
+  public String toString() {
+    if (tamanho == 0) {
+      return "";
+    }
+    if (buffer.hasArray()) {
+      return new String(buffer.array(), buffer.arrayOffset() + inicio, tamanho, charset);
+    }
+    if (copia == null || copia.length < tamanho) {
+      copia = new byte[Math.max(tamanho, 64)];
+    }
+    buffer.get(inicio, copia, 0, tamanho);
+    return new String(copia, 0, tamanho, charset);
+  }
+}
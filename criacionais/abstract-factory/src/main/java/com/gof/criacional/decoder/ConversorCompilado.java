@@ -0,0 +1,82 @@
+package com.gof.criacional.decoder;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * Compila o mapeamento dos campos de um leitor para um record em uma única
+ * cadeia de {@link MethodHandle}s.
+ *
+ * O esquema é o próprio record: cada componente é ligado, pelo nome, a uma
+ * coluna da origem, e o tipo do componente escolhe a conversão feita direto dos
+ * bytes do {@link Campo} ({@code String}, {@code int}, {@code long},
+ * {@link BigDecimal} ou {@link LocalDate}). Componentes {@code long} anotados com
+ * {@link Escala} recebem valores decimais como inteiros escalados. O resultado tem o tipo
+ * {@code (Fonte)Registro} e, guardado em um campo {@code static final}, é
+ * tratado como constante pelo JIT, que compila as chamadas inline, sem
+ * reflexão nem arrays intermediários.
+ */
+public final class ConversorCompilado {
+  private static final Map<Class<?>, String> CONVERSOES = Map.of(
+      String.class, "toString",
+      long.class, "paraLong",
+      int.class, "paraInt",
+      BigDecimal.class, "paraDecimal",
+      LocalDate.class, "paraData");
+
+  private ConversorCompilado() {
+  }
+
+  /**
+   * @param registro       record de destino, com construtor canônico público
+   * @param fonte          tipo do leitor recebido pelo handle compilado
+   * @param campoPorIndice handle {@code (Fonte, int)Campo} que devolve a coluna do registro atual
+   * @param indiceColuna   índice, na origem, da coluna com o nome de cada componente
+   * @return handle do tipo {@code (Fonte)Registro}
+   */
+  public static MethodHandle compilar(Class<? extends Record> registro, Class<?> fonte,
+      MethodHandle campoPorIndice, ToIntFunction<String> indiceColuna) {
+    RecordComponent[] componentes = registro.getRecordComponents();
+    Class<?>[] tipos = new Class<?>[componentes.length];
+    MethodHandle[] conversores = new MethodHandle[componentes.length];
+    MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+    try {
+      for (int i = 0; i < componentes.length; i++) {
+        tipos[i] = componentes[i].getType();
+        String conversao = CONVERSOES.get(tipos[i]);
+        if (conversao == null) {
+          throw new IllegalArgumentException("Tipo " + tipos[i].getSimpleName() + " do componente "
+              + componentes[i].getName() + " não tem conversão a partir de Campo");
+        }
+        MethodHandle campo = MethodHandles.insertArguments(campoPorIndice, 1,
+            indiceColuna.applyAsInt(componentes[i].getName()));
+        conversores[i] = MethodHandles.filterReturnValue(campo, conversao(lookup, componentes[i], conversao));
+      }
+      MethodHandle construtor = lookup.findConstructor(registro, MethodType.methodType(void.class, tipos));
+      // (Fonte, Fonte, ...)Registro -> (Fonte)Registro: todos os argumentos vêm do mesmo leitor
+      MethodHandle porCampo = MethodHandles.filterArguments(construtor, 0, conversores);
+      return MethodHandles.permuteArguments(porCampo, MethodType.methodType(registro, fonte), new int[componentes.length]);
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      throw new IllegalArgumentException("Não foi possível compilar o conversor de " + registro.getSimpleName(), e);
+    }
+  }
+
+  private static MethodHandle conversao(MethodHandles.Lookup lookup, RecordComponent componente, String conversao)
+      throws NoSuchMethodException, IllegalAccessException {
+    Escala escala = componente.getAnnotation(Escala.class);
+    if (escala == null) {
+      return lookup.findVirtual(Campo.class, conversao, MethodType.methodType(componente.getType()));
+    }
+    if (componente.getType() != long.class) {
+      throw new IllegalArgumentException("@Escala exige componente long: " + componente.getName());
+    }
+    MethodHandle escalado = lookup.findVirtual(Campo.class, "paraEscalado", MethodType.methodType(long.class, int.class));
+    return MethodHandles.insertArguments(escalado, 1, escala.value());
+  }
+}
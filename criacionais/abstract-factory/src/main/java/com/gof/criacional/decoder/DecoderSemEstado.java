@@ -0,0 +1,9 @@
+package com.gof.criacional.decoder;
+
+/**
+ * Marca decoders que não guardam estado entre chamadas e podem ser usados por
+ * várias threads ao mesmo tempo. No modo {@code POR_THREAD} as factories
+ * compartilham uma única instância desses tipos; os demais têm uma por thread.
+ */
+public interface DecoderSemEstado {
+}
@@ -1,18 +1,20 @@
 package com.gof.criacional.decoder;
 
 import com.gof.criacional.factory.DecoderFactory;
+import com.gof.criacional.modelo.Cliente;
+import com.gof.criacional.modelo.Conta;
 
 public abstract class DecoderTemplate {
     public abstract DecoderFactory getFactory();
 
     // Template Method - define o algoritmo de processamento
-    public void registrarCliente(String textoMsg) {
+    public Cliente registrarCliente(String textoMsg) {
         RegistrarClienteDecoder decoder = getFactory().createRegistrarClienteDecoder();
-        decoder.decode(textoMsg);
+        return decoder.decode(textoMsg);
     }
 
-    public void registrarConta(String textoMsg) {
+    public Conta registrarConta(String textoMsg) {
         RegistrarContaDecoder decoder = getFactory().createRegistrarContaDecoder();
-        decoder.decode(textoMsg);
+        return decoder.decode(textoMsg);
     }
 }
@@ -0,0 +1,10 @@
+package com.gof.criacional.decoder;
+
+/**
+ * Destino que recebe, junto com cada registro, a posição em bytes logo após ele
+ * no arquivo. Uma leitura iniciada nessa posição continua no registro seguinte.
+ */
+@FunctionalInterface
+public interface DestinoPosicionado<T> {
+  void aceitar(T registro, long posicaoFim);
+}
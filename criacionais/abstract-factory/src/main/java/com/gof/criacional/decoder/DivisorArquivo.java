@@ -0,0 +1,244 @@
+package com.gof.criacional.decoder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Divide um arquivo grande em trechos alinhados ao início dos registros, para
+ * que cada trecho seja decodificado em uma thread.
+ *
+ * O arquivo é cortado a cada {@code tamanhoTrecho} bytes. O trecho {@code i}
+ * contém os registros que começam entre {@link #inicio} e {@link #fim}: o
+ * registro que atravessa o corte seguinte é lido inteiro por ele, e o próximo
+ * trecho começa logo depois do fim desse registro. Um registro maior que o
+ * trecho apenas deixa o trecho seguinte vazio.
+ *
+ * O início de cada trecho é resolvido sob demanda, por quem vai decodificá-lo:
+ * {@link #varrer(int)} lê só o próprio trecho e, com {@link #inicio}, a quebra
+ * de linha que termina o registro do corte vira o início do trecho. Não há uma
+ * passada pelo arquivo inteiro antes de a decodificação começar.
+ *
+ * No CSV uma quebra de linha dentro de um campo entre aspas não termina o
+ * registro, e só olhando a partir do corte não dá para saber se ele caiu dentro
+ * de aspas. Por isso a varredura conta as aspas do trecho e guarda a primeira
+ * quebra de linha vista com uma quantidade par e com uma quantidade ímpar de
+ * aspas. A paridade no corte é a do trecho anterior acumulada
+ * ({@code dentroDeAspas ^ varredura.aspasImpares()}), e escolhe qual das duas
+ * quebras é o verdadeiro fim de registro. Aspas escapadas ({@code ""}) não mudam
+ * a paridade. Como no {@code LeitorCSV}, aspas só são esperadas delimitando campos.
+ */
+public final class DivisorArquivo {
+  private static final byte LF = '\n';
+  private static final int TAMANHO_LEITURA = 64 * 1024;
+
+  /**
+   * Busca usada na varredura dos trechos; o CSV usa a do {@code LeitorCSV},
+   * vetorial quando disponível.
+   */
+  public interface Busca {
+    Busca ESCALAR = new Busca() {
+      @Override
+      public int quebraLinha(byte[] dados, int inicio, int fim) {
+        for (int i = inicio; i < fim; i++) {
+          if (dados[i] == LF) {
+            return i;
+          }
+        }
+        return fim;
+      }
+
+      @Override
+      public int contarAspas(byte[] dados, int inicio, int fim) {
+        int aspas = 0;
+        for (int i = inicio; i < fim; i++) {
+          if (dados[i] == '"') {
+            aspas++;
+          }
+        }
+        return aspas;
+      }
+    };
+
+    /**
+     * Posição do primeiro {@code \n} a partir de {@code inicio}, ou {@code fim}.
+     */
+    int quebraLinha(byte[] dados, int inicio, int fim);
+
+    int contarAspas(byte[] dados, int inicio, int fim);
+  }
+
+  /**
+   * Resultado da varredura de um trecho; posições absolutas, -1 se não houver.
+   * Sem aspas (texto fixo) as duas quebras são a mesma.
+   */
+  public record Varredura(boolean aspasImpares, long quebraPar, long quebraImpar) {
+  }
+
+  private final Path arquivo;
+  private final long tamanho;
+  private final long tamanhoTrecho;
+  private final int partes;
+  private final Busca busca;
+
+  private DivisorArquivo(Path arquivo, long tamanhoTrecho, Busca busca) throws IOException {
+    if (tamanhoTrecho <= 0 || tamanhoTrecho > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Tamanho de trecho deve estar entre 1 e " + Integer.MAX_VALUE + ": " + tamanhoTrecho);
+    }
+    try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+      this.tamanho = canal.size();
+    }
+    long quantidade = Math.max(1, (tamanho + tamanhoTrecho - 1) / tamanhoTrecho);
+    if (quantidade > Integer.MAX_VALUE - 1) {
+      throw new IllegalArgumentException("Trecho de " + tamanhoTrecho + " bytes gera trechos demais para " + tamanho + " bytes");
+    }
+    this.arquivo = arquivo;
+    this.tamanhoTrecho = tamanhoTrecho;
+    this.partes = (int) quantidade;
+    this.busca = busca;
+  }
+
+  /**
+   * Para formatos sem aspas (texto fixo): qualquer quebra de linha termina um registro.
+   */
+  public static DivisorArquivo porLinhas(Path arquivo, long tamanhoTrecho) throws IOException {
+    return new DivisorArquivo(arquivo, tamanhoTrecho, null);
+  }
+
+  /**
+   * Para CSV: respeita quebras de linha dentro de campos entre aspas.
+   */
+  public static DivisorArquivo porRegistrosCSV(Path arquivo, long tamanhoTrecho, Busca busca) throws IOException {
+    return new DivisorArquivo(arquivo, tamanhoTrecho, busca);
+  }
+
+  public Path getArquivo() {
+    return arquivo;
+  }
+
+  public int partes() {
+    return partes;
+  }
+
+  /**
+   * O trecho contém os registros que começam antes desta posição.
+   */
+  public long fim(int parte) {
+    return parte == partes - 1 ? tamanho : (parte + 1) * tamanhoTrecho;
+  }
+
+  /**
+   * Lê o trecho procurando a quebra de linha que termina o registro do corte e,
+   * no CSV, a paridade das aspas. Independe dos outros trechos.
+   */
+  public Varredura varrer(int parte) throws IOException {
+    // Começa um byte antes do corte: se o registro anterior terminar ali, o trecho começa no corte
+    long inicio = parte == 0 ? 0 : parte * tamanhoTrecho - 1;
+    long fim = fim(parte) - (parte == partes - 1 ? 0 : 1);
+    if (busca == null && parte == 0) {
+      return new Varredura(false, -1, -1);
+    }
+    Busca varredura = busca != null ? busca : Busca.ESCALAR;
+    byte[] bloco = new byte[(int) Math.min(TAMANHO_LEITURA, Math.max(1, fim - inicio))];
+    boolean impar = false;
+    long quebraPar = -1;
+    long quebraImpar = -1;
+    try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+      for (long posicao = inicio; posicao < fim; ) {
+        int lidos = ler(canal, bloco, posicao, fim);
+        if (lidos <= 0) {
+          break;
+        }
+        int i = 0;
+        while (i < lidos && (quebraPar < 0 || quebraImpar < 0)) {
+          int quebra = varredura.quebraLinha(bloco, i, lidos);
+          if (busca != null) {
+            impar ^= (varredura.contarAspas(bloco, i, quebra) & 1) != 0;
+          }
+          if (quebra == lidos) {
+            i = lidos;
+          } else {
+            if (!impar && quebraPar < 0) {
+              quebraPar = posicao + quebra;
+            } else if (impar && quebraImpar < 0) {
+              quebraImpar = posicao + quebra;
+            }
+            i = quebra + 1;
+          }
+          if (busca == null && quebraPar >= 0) {
+            return new Varredura(false, quebraPar, quebraPar);
+          }
+        }
+        if (busca != null && i < lidos) {
+          impar ^= (varredura.contarAspas(bloco, i, lidos) & 1) != 0;
+        }
+        posicao += lidos;
+      }
+    }
+    return new Varredura(impar, quebraPar, quebraImpar);
+  }
+
+  /**
+   * Onde o trecho começa, dada a sua varredura e se o corte caiu dentro de aspas
+   * (paridade acumulada dos trechos anteriores). Igual a {@link #fim} quando
+   * nenhum registro começa no trecho.
+   */
+  public long inicio(int parte, Varredura varredura, boolean dentroDeAspas) {
+    if (parte == 0) {
+      return 0;
+    }
+    long quebra = dentroDeAspas ? varredura.quebraImpar() : varredura.quebraPar();
+    return quebra < 0 ? fim(parte) : quebra + 1;
+  }
+
+  /**
+   * Resolve todos os trechos de uma vez: varre em paralelo e devolve os limites,
+   * do primeiro (0) ao último (o tamanho do arquivo). O trecho {@code i} vai de
+   * {@code limites[i]} a {@code limites[i + 1]}. Para decodificar sem a passada
+   * prévia, use {@link #varrer} e {@link #inicio} trecho a trecho.
+   */
+  public long[] limites() throws IOException {
+    Varredura[] varreduras;
+    try {
+      varreduras = IntStream.range(0, partes).parallel()
+          .mapToObj(parte -> {
+            try {
+              return varrer(parte);
+            } catch (IOException e) {
+              throw new UncheckedIOException(e);
+            }
+          })
+          .toArray(Varredura[]::new);
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    long[] limites = new long[partes + 1];
+    int quantidade = 1;
+    boolean dentroDeAspas = false;
+    for (int parte = 0; parte < partes; parte++) {
+      long inicio = inicio(parte, varreduras[parte], dentroDeAspas);
+      if (inicio > limites[quantidade - 1] && inicio < tamanho) {
+        limites[quantidade++] = inicio;
+      }
+      dentroDeAspas ^= varreduras[parte].aspasImpares();
+    }
+    limites[quantidade++] = tamanho;
+    return Arrays.copyOf(limites, quantidade);
+  }
+
+  private static int ler(FileChannel canal, byte[] bloco, long posicao, long fim) throws IOException {
+    ByteBuffer destino = ByteBuffer.wrap(bloco, 0, (int) Math.min(bloco.length, fim - posicao));
+    while (destino.hasRemaining()) {
+      int lidos = canal.read(destino, posicao + destino.position());
+      if (lidos < 0) {
+        break;
+      }
+    }
+    return destino.position();
+  }
+}
@@ -0,0 +1,195 @@
+package com.gof.criacional.decoder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.PushbackInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Entrada gzip descompactada em uma thread separada, em paralelo com a decodificação.
+ *
+ * Uma thread de fundo lê a entrada compactada e enche blocos; quem lê esta entrada
+ * (o decoder) consome os blocos prontos. Os dois estágios rodam em núcleos
+ * diferentes, e no máximo {@code blocosEmVoo} blocos ficam prontos à espera, então
+ * a descompactação nunca se adianta mais do que isso. Os blocos são reaproveitados,
+ * e cada entrada nunca tem mais que {@code blocosEmVoo + 2} deles.
+ *
+ * A thread vem de quem abre a entrada: por padrão é uma virtual thread, então
+ * milhares de fontes compactadas em andamento não ocupam uma thread de plataforma
+ * cada. Quem abre muitas fontes ao mesmo tempo deve usar blocos menores
+ * ({@link #abrir(InputStream, ThreadFactory, int, int)}); o padrão, de
+ * {@value #TAMANHO_BLOCO} bytes e {@value #BLOCOS_EM_VOO} blocos à frente, é pensado
+ * para um arquivo grande por vez.
+ *
+ * Arquivos gzip com vários membros concatenados são suportados.
+ */
+public final class EntradaDescompactada extends InputStream {
+  static final int TAMANHO_BLOCO = 256 * 1024;
+  static final int BLOCOS_EM_VOO = 4;
+  private static final ThreadFactory THREADS = Thread.ofVirtual().name("descompactacao-", 0).factory();
+
+  private final InputStream origem;
+  private final int tamanhoBloco;
+  private final BlockingQueue<Bloco> prontos;
+  private final BlockingQueue<byte[]> livres;
+  private final Thread produtor;
+
+  private Bloco atual;
+  private int posicao;
+  private boolean fim;
+  private volatile boolean fechada;
+
+  private record Bloco(byte[] dados, int tamanho, IOException erro) {
+  }
+
+  private EntradaDescompactada(InputStream compactada, ThreadFactory threads, int tamanhoBloco, int blocosEmVoo) {
+    this.origem = compactada;
+    this.tamanhoBloco = tamanhoBloco;
+    this.prontos = new ArrayBlockingQueue<>(blocosEmVoo);
+    this.livres = new ArrayBlockingQueue<>(blocosEmVoo + 2);
+    this.produtor = threads.newThread(this::descompactar);
+    this.produtor.start();
+  }
+
+  /**
+   * Devolve a entrada pronta para os decoders: descompactada em pipeline se começar
+   * com a assinatura gzip, ou a própria entrada caso contrário.
+   */
+  public static InputStream abrir(InputStream entrada) throws IOException {
+    return abrir(entrada, THREADS, TAMANHO_BLOCO, BLOCOS_EM_VOO);
+  }
+
+  /**
+   * Como {@link #abrir(InputStream)}, com a thread de descompactação criada por
+   * {@code threads} e até {@code (blocosEmVoo + 2) * tamanhoBloco} bytes de blocos.
+   */
+  public static InputStream abrir(InputStream entrada, ThreadFactory threads, int tamanhoBloco, int blocosEmVoo)
+      throws IOException {
+    if (tamanhoBloco <= 0 || blocosEmVoo <= 0) {
+      throw new IllegalArgumentException("Blocos inválidos: " + blocosEmVoo + " de " + tamanhoBloco + " bytes");
+    }
+    PushbackInputStream espiada = new PushbackInputStream(entrada, 2);
+    byte[] assinatura = espiada.readNBytes(2);
+    espiada.unread(assinatura);
+    return isGzip(assinatura, assinatura.length)
+        ? new EntradaDescompactada(espiada, threads, tamanhoBloco, blocosEmVoo)
+        : espiada;
+  }
+
+  /**
+   * Indica se o arquivo começa com a assinatura gzip.
+   */
+  public static boolean isCompactado(Path arquivo) throws IOException {
+    try (InputStream entrada = Files.newInputStream(arquivo)) {
+      byte[] assinatura = entrada.readNBytes(2);
+      return isGzip(assinatura, assinatura.length);
+    }
+  }
+
+  private static boolean isGzip(byte[] assinatura, int tamanho) {
+    return tamanho == 2 && (assinatura[0] & 0xFF) == 0x1F && (assinatura[1] & 0xFF) == 0x8B;
+  }
+
+  @Override
+  public int read() throws IOException {
+    if (!disponivel()) {
+      return -1;
+    }
+    return atual.dados[posicao++] & 0xFF;
+  }
+
+  @Override
+  public int read(byte[] destino, int deslocamento, int tamanho) throws IOException {
+    if (tamanho == 0) {
+      return 0;
+    }
+    if (!disponivel()) {
+      return -1;
+    }
+    int copiados = Math.min(tamanho, atual.tamanho - posicao);
+    System.arraycopy(atual.dados, posicao, destino, deslocamento, copiados);
+    posicao += copiados;
+    return copiados;
+  }
+
+  /**
+   * Interrompe a descompactação, se ainda estiver em andamento, e fecha a origem.
+   */
+  @Override
+  public void close() throws IOException {
+    if (fechada) {
+      return;
+    }
+    fechada = true;
+    produtor.interrupt();
+    origem.close();
+  }
+
+  private boolean disponivel() throws IOException {
+    if (fechada) {
+      throw new IOException("Entrada descompactada já fechada");
+    }
+    if (fim) {
+      return false;
+    }
+    if (atual != null && posicao < atual.tamanho) {
+      return true;
+    }
+    if (atual != null) {
+      livres.offer(atual.dados);
+    }
+    try {
+      atual = prontos.take();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrompido aguardando a descompactação");
+    }
+    posicao = 0;
+    if (atual.erro != null) {
+      fim = true;
+      throw new IOException("Falha ao descompactar a entrada: " + atual.erro.getMessage(), atual.erro);
+    }
+    if (atual.tamanho == 0) {
+      fim = true;
+      return false;
+    }
+    return true;
+  }
+
+  // Roda na thread de fundo
+  private void descompactar() {
+    try (InputStream gzip = new GZIPInputStream(origem, Math.min(tamanhoBloco, 64 * 1024))) {
+      while (true) {
+        byte[] dados = livres.poll();
+        if (dados == null) {
+          dados = new byte[tamanhoBloco];
+        }
+        int lidos = gzip.readNBytes(dados, 0, dados.length);
+        prontos.put(new Bloco(dados, lidos, null));
+        if (lidos == 0) {
+          return;
+        }
+      }
+    } catch (InterruptedException e) {
+      // close() interrompeu a leitura
+    } catch (IOException | RuntimeException e) {
+      if (!fechada) {
+        entregarErro(e instanceof IOException io ? io : new IOException(e));
+      }
+    }
+  }
+
+  private void entregarErro(IOException erro) {
+    try {
+      prontos.put(new Bloco(null, 0, erro));
+    } catch (InterruptedException e) {
+      // close() foi chamado; ninguém mais vai ler o erro
+    }
+  }
+}
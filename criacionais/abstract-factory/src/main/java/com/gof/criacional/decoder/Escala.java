@@ -0,0 +1,17 @@
+package com.gof.criacional.decoder;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca um componente {@code long} de record como valor decimal com
+ * {@code value()} casas, guardado como inteiro escalado (por exemplo centavos
+ * com {@code @Escala(2)}). Usado pelo {@link ConversorCompilado}.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.RECORD_COMPONENT)
+public @interface Escala {
+  int value();
+}
@@ -1,5 +1,143 @@
 package com.gof.criacional.decoder;
 
+import com.gof.criacional.modelo.Conta;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
 public abstract class RegistrarContaDecoder {
-  public abstract void decode(String dados);
+  // Ligado enquanto um decoder com estado usa seus buffers; ver isEmUso
+  private boolean emUso;
+
+  public abstract Conta decode(String dados);
+
+  /**
+   * Indica se esta instância está no meio de uma decodificação na thread atual.
+   * A factory, no modo {@code POR_THREAD}, entrega uma instância nova em vez de
+   * reaproveitar uma que está em uso (uso reentrante pelo destino, ou uma tarefa
+   * de ForkJoin executada por uma thread que espera outra).
+   */
+  public boolean isEmUso() {
+    return emUso;
+  }
+
+  /**
+   * Decodifica todos os registros de uma entrada, um por linha, entregando
+   * cada conta ao destino assim que é decodificada. Qualquer falha interrompe a leitura.
+   *
+   * @return quantidade de registros decodificados
+   */
+  public long decode(InputStream entrada, Consumer<? super Conta> destino) throws IOException {
+    return decode(entrada, destino, TratadorFalhas.PROPAGAR);
+  }
+
+  /**
+   * Como {@link #decode(InputStream, Consumer)}, mas registros inválidos são
+   * entregues ao tratador e a leitura segue com o próximo.
+   *
+   * Formatos com leitura em streaming própria sobrescrevem este método.
+   *
+   * @return quantidade de registros decodificados com sucesso
+   */
+  public long decode(InputStream entrada, Consumer<? super Conta> destino, TratadorFalhas tratador) throws IOException {
+    BufferedReader leitor = new BufferedReader(new InputStreamReader(entrada, getCharset()));
+    long registros = 0;
+    long numeroLinha = 0;
+    String linha;
+    while ((linha = leitor.readLine()) != null) {
+      numeroLinha++;
+      if (linha.isBlank()) {
+        continue;
+      }
+      Conta conta;
+      try {
+        conta = decode(linha);
+      } catch (RuntimeException e) {
+        tratador.falha(numeroLinha, RegistroBruto.deTexto(linha, getCharset()), e);
+        continue;
+      }
+      destino.accept(conta);
+      registros++;
+    }
+    return registros;
+  }
+
+  /**
+   * Charset usado para ler as linhas em {@link #decode(InputStream, Consumer, TratadorFalhas)}.
+   */
+  protected Charset getCharset() {
+    return StandardCharsets.UTF_8;
+  }
+
+  /**
+   * Decodifica todos os registros de um arquivo.
+   *
+   * @return quantidade de registros decodificados
+   */
+  public long decodeArquivo(Path arquivo, Consumer<? super Conta> destino) throws IOException {
+    return decodeArquivo(arquivo, destino, TratadorFalhas.PROPAGAR);
+  }
+
+  public long decodeArquivo(Path arquivo, Consumer<? super Conta> destino, TratadorFalhas tratador) throws IOException {
+    try (InputStream entrada = Files.newInputStream(arquivo)) {
+      return decode(entrada, destino, tratador);
+    }
+  }
+
+  /**
+   * Decodifica um arquivo a partir de {@code inicio}, que precisa ser o começo de
+   * um registro (por exemplo uma posição recebida antes pelo destino). Permite
+   * retomar uma leitura interrompida sem reler o arquivo desde o início.
+   *
+   * @throws UnsupportedOperationException se o formato não expõe posições em bytes
+   * @return quantidade de registros decodificados com sucesso
+   */
+  public long decodeArquivo(Path arquivo, long inicio, DestinoPosicionado<? super Conta> destino, TratadorFalhas tratador)
+      throws IOException {
+    return decodeTrecho(arquivo, inicio, Long.MAX_VALUE, destino, tratador);
+  }
+
+  /**
+   * Decodifica os registros que começam entre {@code inicio} (inclusive, começo de
+   * um registro) e {@code fim}. Com os trechos de {@link #dividirArquivo}, cada
+   * trecho pode ser decodificado em uma thread.
+   *
+   * @throws UnsupportedOperationException se o formato não expõe posições em bytes
+   * @return quantidade de registros decodificados com sucesso
+   */
+  public long decodeTrecho(Path arquivo, long inicio, long fim, DestinoPosicionado<? super Conta> destino,
+      TratadorFalhas tratador) throws IOException {
+    throw new UnsupportedOperationException("Leitura a partir de uma posição não suportada por " + getClass().getSimpleName());
+  }
+
+  /**
+   * Divide o arquivo em trechos de aproximadamente {@code tamanhoTrecho} bytes.
+   * O início de cada trecho é resolvido sob demanda; ver {@link DivisorArquivo}.
+   *
+   * @throws UnsupportedOperationException se o formato não permite achar o início de um registro
+   */
+  public DivisorArquivo dividirArquivo(Path arquivo, long tamanhoTrecho) throws IOException {
+    throw new UnsupportedOperationException("Divisão de arquivo não suportada por " + getClass().getSimpleName());
+  }
+
+  /**
+   * Marca a instância em uso; o valor devolvido vai para {@link #liberar(boolean)}
+   * no {@code finally}, o que mantém a marca em chamadas aninhadas.
+   */
+  protected final boolean ocupar() {
+    boolean anterior = emUso;
+    emUso = true;
+    return anterior;
+  }
+
+  protected final void liberar(boolean anterior) {
+    emUso = anterior;
+  }
 }
@@ -0,0 +1,63 @@
+package com.gof.criacional.decoder;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Conteúdo original de um registro rejeitado, entregue ao {@link TratadorFalhas}.
+ *
+ * No CSV e no texto fixo são os bytes do registro exatamente como estavam na
+ * entrada, sem o terminador de linha; bytes inválidos no charset continuam
+ * intactos em {@link #bytes()} e só viram U+FFFD em {@link #texto()}. Nos
+ * formatos lidos como texto (XML, mensagens, leitura linha a linha) os bytes
+ * são o texto recodificado.
+ */
+public final class RegistroBruto {
+  private final byte[] bytes;
+  private final Charset charset;
+
+  private RegistroBruto(byte[] bytes, Charset charset) {
+    this.bytes = bytes;
+    this.charset = charset;
+  }
+
+  /**
+   * Copia {@code tamanho} bytes a partir de {@code inicio}; o buffer pode ser reaproveitado depois.
+   */
+  public static RegistroBruto deBytes(byte[] buffer, int inicio, int tamanho, Charset charset) {
+    return new RegistroBruto(Arrays.copyOfRange(buffer, inicio, inicio + tamanho), charset);
+  }
+
+  public static RegistroBruto deTexto(String texto, Charset charset) {
+    return new RegistroBruto(texto.getBytes(charset), charset);
+  }
+
+  public static RegistroBruto deTexto(String texto) {
+    return deTexto(texto, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Cópia dos bytes originais.
+   */
+  public byte[] bytes() {
+    return bytes.clone();
+  }
+
+  public int tamanho() {
+    return bytes.length;
+  }
+
+  public Charset charset() {
+    return charset;
+  }
+
+  public String texto() {
+    return new String(bytes, charset);
+  }
+
+  @Override
+  public String toString() {
+    return texto();
+  }
+}
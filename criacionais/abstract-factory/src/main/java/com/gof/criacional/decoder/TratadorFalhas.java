@@ -0,0 +1,26 @@
+package com.gof.criacional.decoder;
+
+/**
+ * Recebe os registros que não puderam ser decodificados durante uma leitura
+ * em lote, permitindo que a leitura continue com o próximo registro.
+ *
+ * Falhas estruturais, em que não é possível achar o início do próximo registro
+ * (aspas sem fechamento no CSV, XML mal formado), continuam interrompendo a leitura.
+ */
+@FunctionalInterface
+public interface TratadorFalhas {
+  /**
+   * Relança a falha, interrompendo a leitura (comportamento padrão).
+   */
+  TratadorFalhas PROPAGAR = (posicao, bruto, causa) -> {
+    throw causa;
+  };
+
+  /**
+   * @param posicao posição do registro na entrada: bytes no CSV e no texto fixo,
+   *                caracteres no XML e número da linha na leitura genérica
+   * @param bruto   conteúdo original do registro, em bytes
+   * @param causa   erro da decodificação
+   */
+  void falha(long posicao, RegistroBruto bruto, RuntimeException causa);
+}
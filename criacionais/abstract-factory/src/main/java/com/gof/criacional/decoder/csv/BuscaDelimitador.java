@@ -0,0 +1,43 @@
+package com.gof.criacional.decoder.csv;
+
+import com.gof.criacional.decoder.DivisorArquivo;
+
+/**
+ * Varredura do buffer do {@link LeitorCSV} e dos trechos do {@link DivisorArquivo}.
+ * As buscas devolvem {@code fim} quando não encontram nada no intervalo.
+ */
+interface BuscaDelimitador extends DivisorArquivo.Busca {
+  BuscaDelimitador ESCALAR = new BuscaEscalar();
+
+  /**
+   * {@code null} quando o módulo {@code jdk.incubator.vector} não foi habilitado.
+   */
+  BuscaDelimitador VETORIAL = carregarVetorial();
+
+  /**
+   * Posição do primeiro delimitador, {@code \n} ou {@code \r} a partir de {@code inicio}.
+   */
+  int fimCampo(byte[] dados, int inicio, int fim, byte delimitador);
+
+  /**
+   * Posição das primeiras aspas a partir de {@code inicio}.
+   */
+  int aspas(byte[] dados, int inicio, int fim);
+
+  static BuscaDelimitador para(ModoVarredura modo) {
+    return modo == ModoVarredura.VETORIAL && VETORIAL != null ? VETORIAL : ESCALAR;
+  }
+
+  // Carregada por nome: sem o módulo, a classe vetorial nem chega a ser resolvida
+  private static BuscaDelimitador carregarVetorial() {
+    if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+      return null;
+    }
+    try {
+      return (BuscaDelimitador) Class.forName("com.gof.criacional.decoder.csv.BuscaVetorial")
+          .getDeclaredConstructor().newInstance();
+    } catch (ReflectiveOperationException | LinkageError e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,45 @@
+package com.gof.criacional.decoder.csv;
+
+final class BuscaEscalar implements BuscaDelimitador {
+  @Override
+  public int fimCampo(byte[] dados, int inicio, int fim, byte delimitador) {
+    for (int i = inicio; i < fim; i++) {
+      byte b = dados[i];
+      if (b == delimitador || b == '\n' || b == '\r') {
+        return i;
+      }
+    }
+    return fim;
+  }
+
+  @Override
+  public int aspas(byte[] dados, int inicio, int fim) {
+    for (int i = inicio; i < fim; i++) {
+      if (dados[i] == '"') {
+        return i;
+      }
+    }
+    return fim;
+  }
+
+  @Override
+  public int quebraLinha(byte[] dados, int inicio, int fim) {
+    for (int i = inicio; i < fim; i++) {
+      if (dados[i] == '\n') {
+        return i;
+      }
+    }
+    return fim;
+  }
+
+  @Override
+  public int contarAspas(byte[] dados, int inicio, int fim) {
+    int aspas = 0;
+    for (int i = inicio; i < fim; i++) {
+      if (dados[i] == '"') {
+        aspas++;
+      }
+    }
+    return aspas;
+  }
+}
@@ -0,0 +1,63 @@
+package com.gof.criacional.decoder.csv;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Compara {@code ESPECIE.length()} bytes por instrução (32 com AVX2, 64 com
+ * AVX-512) e termina o trecho final, menor que um vetor, byte a byte.
+ *
+ * Só é carregada por {@link BuscaDelimitador} quando o módulo
+ * {@code jdk.incubator.vector} está presente.
+ */
+final class BuscaVetorial implements BuscaDelimitador {
+  private static final VectorSpecies<Byte> ESPECIE = ByteVector.SPECIES_PREFERRED;
+
+  @Override
+  public int fimCampo(byte[] dados, int inicio, int fim, byte delimitador) {
+    int i = inicio;
+    for (int limite = fim - ESPECIE.length(); i <= limite; i += ESPECIE.length()) {
+      ByteVector bloco = ByteVector.fromArray(ESPECIE, dados, i);
+      VectorMask<Byte> encontrados = bloco.eq(delimitador).or(bloco.eq((byte) '\n')).or(bloco.eq((byte) '\r'));
+      if (encontrados.anyTrue()) {
+        return i + encontrados.firstTrue();
+      }
+    }
+    return ESCALAR.fimCampo(dados, i, fim, delimitador);
+  }
+
+  @Override
+  public int aspas(byte[] dados, int inicio, int fim) {
+    int i = inicio;
+    for (int limite = fim - ESPECIE.length(); i <= limite; i += ESPECIE.length()) {
+      VectorMask<Byte> encontrados = ByteVector.fromArray(ESPECIE, dados, i).eq((byte) '"');
+      if (encontrados.anyTrue()) {
+        return i + encontrados.firstTrue();
+      }
+    }
+    return ESCALAR.aspas(dados, i, fim);
+  }
+
+  @Override
+  public int quebraLinha(byte[] dados, int inicio, int fim) {
+    int i = inicio;
+    for (int limite = fim - ESPECIE.length(); i <= limite; i += ESPECIE.length()) {
+      VectorMask<Byte> encontrados = ByteVector.fromArray(ESPECIE, dados, i).eq((byte) '\n');
+      if (encontrados.anyTrue()) {
+        return i + encontrados.firstTrue();
+      }
+    }
+    return ESCALAR.quebraLinha(dados, i, fim);
+  }
+
+  @Override
+  public int contarAspas(byte[] dados, int inicio, int fim) {
+    int aspas = 0;
+    int i = inicio;
+    for (int limite = fim - ESPECIE.length(); i <= limite; i += ESPECIE.length()) {
+      aspas += ByteVector.fromArray(ESPECIE, dados, i).eq((byte) '"').trueCount();
+    }
+    return aspas + ESCALAR.contarAspas(dados, i, fim);
+  }
+}
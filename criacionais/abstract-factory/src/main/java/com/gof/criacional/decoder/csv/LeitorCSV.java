@@ -0,0 +1,326 @@
+package com.gof.criacional.decoder.csv;
+
+import com.gof.criacional.decoder.Campo;
+import com.gof.criacional.decoder.ConversorCompilado;
+import com.gof.criacional.decoder.RegistroBruto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Leitor CSV em streaming sobre um {@link InputStream}.
+ *
+ * Lê o arquivo em blocos para um buffer reaproveitado e entrega um registro
+ * por vez. Cada campo é exposto como um {@link Campo} apontando para o próprio
+ * buffer, então nenhuma String é criada durante a leitura. Suporta campos entre
+ * aspas com delimitadores, quebras de linha e aspas escapadas ({@code ""}).
+ *
+ * A busca por delimitadores e aspas pode ser vetorizada com {@link ModoVarredura#VETORIAL}.
+ *
+ * A memória usada depende apenas do tamanho do maior registro, não do arquivo.
+ * Não é thread-safe: cada thread deve usar sua própria instância.
+ */
+public class LeitorCSV {
+  private static final int TAMANHO_INICIAL = 64 * 1024;
+  private static final int TAMANHO_MAXIMO_REGISTRO = 16 * 1024 * 1024;
+  private static final byte ASPAS = '"';
+  private static final byte LF = '\n';
+  private static final byte CR = '\r';
+
+  private static final MethodHandle CAMPO_POR_INDICE;
+
+  static {
+    try {
+      CAMPO_POR_INDICE = MethodHandles.lookup().findVirtual(LeitorCSV.class, "campo",
+          MethodType.methodType(Campo.class, int.class));
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  private final byte delimitador;
+  private final Charset charset;
+  private final BuscaDelimitador busca;
+
+  private InputStream entrada;
+  private byte[] buffer = new byte[TAMANHO_INICIAL];
+  private ByteBuffer visao = ByteBuffer.wrap(buffer);
+  private int limite;
+  private boolean fimEntrada;
+  private long bytesDescartados;
+
+  private int inicioRegistro;
+  private int fimRegistro;
+
+  private byte[] escapados = new byte[256];
+  private ByteBuffer visaoEscapados = ByteBuffer.wrap(escapados);
+  private int usoEscapados;
+
+  private Campo[] campos = new Campo[0];
+  private int quantidadeCampos;
+
+  public LeitorCSV(InputStream entrada) {
+    this(entrada, ',', StandardCharsets.UTF_8);
+  }
+
+  public LeitorCSV(InputStream entrada, char delimitador, Charset charset) {
+    this(entrada, delimitador, charset, ModoVarredura.ESCALAR);
+  }
+
+  /**
+   * @param modo {@link ModoVarredura#VETORIAL} usa a Vector API quando disponível
+   *             e a varredura escalar caso contrário
+   */
+  public LeitorCSV(InputStream entrada, char delimitador, Charset charset, ModoVarredura modo) {
+    if (delimitador > 0x7F || delimitador == '"' || delimitador == '\n' || delimitador == '\r') {
+      throw new IllegalArgumentException("Delimitador CSV inválido: " + delimitador);
+    }
+    this.delimitador = (byte) delimitador;
+    this.charset = charset;
+    this.busca = BuscaDelimitador.para(modo);
+    this.entrada = entrada;
+  }
+
+  /**
+   * Compila um conversor {@code (LeitorCSV)Registro} em que cada componente do
+   * record é lido da coluna de mesmo nome em {@code colunas}. Ver {@link ConversorCompilado}.
+   */
+  public static MethodHandle conversor(Class<? extends Record> registro, String... colunas) {
+    List<String> nomes = List.of(colunas);
+    return ConversorCompilado.compilar(registro, LeitorCSV.class, CAMPO_POR_INDICE, nome -> {
+      int indice = nomes.indexOf(nome);
+      if (indice < 0) {
+        throw new IllegalArgumentException("Coluna CSV inexistente: " + nome);
+      }
+      return indice;
+    });
+  }
+
+  /**
+   * Reaproveita os buffers deste leitor para uma nova entrada.
+   */
+  public void reiniciar(InputStream entrada) {
+    this.entrada = entrada;
+    this.limite = 0;
+    this.fimEntrada = false;
+    this.bytesDescartados = 0;
+    this.inicioRegistro = 0;
+    this.fimRegistro = 0;
+    this.quantidadeCampos = 0;
+  }
+
+  /**
+   * Avança para o próximo registro. Linhas em branco são ignoradas.
+   *
+   * @return {@code false} quando a entrada terminou
+   */
+  public boolean proximoRegistro() throws IOException {
+    inicioRegistro = fimRegistro;
+    while (true) {
+      int fim = analisarRegistro();
+      if (fim >= 0) {
+        fimRegistro = fim;
+        if (quantidadeCampos == 1 && campos[0].isVazio() && !registroTemAspas()) {
+          inicioRegistro = fimRegistro;
+          continue;
+        }
+        return true;
+      }
+      if (fimEntrada) {
+        return false;
+      }
+      carregarMais();
+    }
+  }
+
+  public int quantidadeCampos() {
+    return quantidadeCampos;
+  }
+
+  /**
+   * Visão do campo no registro atual. Válida apenas até a próxima chamada de
+   * {@link #proximoRegistro()}.
+   */
+  public Campo campo(int indice) {
+    if (indice < 0 || indice >= quantidadeCampos) {
+      throw new IndexOutOfBoundsException("Campo " + indice + " inexistente; registro tem " + quantidadeCampos);
+    }
+    return campos[indice];
+  }
+
+  /**
+   * Bytes originais do registro atual, sem o terminador de linha.
+   */
+  public RegistroBruto registroBruto() {
+    int fim = fimRegistro;
+    while (fim > inicioRegistro && (buffer[fim - 1] == LF || buffer[fim - 1] == CR)) {
+      fim--;
+    }
+    return RegistroBruto.deBytes(buffer, inicioRegistro, fim - inicioRegistro, charset);
+  }
+
+  /**
+   * Posição, em bytes desde o início da entrada, onde o registro atual começa.
+   */
+  public long posicaoRegistro() {
+    return bytesDescartados + inicioRegistro;
+  }
+
+  /**
+   * Posição, em bytes desde o início da entrada, logo após o registro atual.
+   */
+  public long posicaoFimRegistro() {
+    return bytesDescartados + fimRegistro;
+  }
+
+  private boolean registroTemAspas() {
+    for (int i = inicioRegistro; i < fimRegistro; i++) {
+      if (buffer[i] == ASPAS) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Tenta reconhecer um registro completo a partir de {@code inicioRegistro}.
+   *
+   * @return posição logo após o terminador, ou -1 se faltam bytes no buffer
+   */
+  private int analisarRegistro() {
+    quantidadeCampos = 0;
+    usoEscapados = 0;
+    int pos = inicioRegistro;
+    if (pos >= limite) {
+      return -1;
+    }
+    while (true) {
+      if (pos < limite && buffer[pos] == ASPAS) {
+        pos = analisarCampoEntreAspas(pos);
+        if (pos < 0) {
+          return -1;
+        }
+      } else {
+        int inicioCampo = pos;
+        pos = busca.fimCampo(buffer, pos, limite, delimitador);
+        if (pos == limite && !fimEntrada) {
+          return -1;
+        }
+        adicionarCampo(visao, inicioCampo, pos - inicioCampo);
+      }
+
+      if (pos >= limite) {
+        return fimEntrada ? pos : -1;
+      }
+      byte b = buffer[pos];
+      if (b == delimitador) {
+        pos++;
+        continue;
+      }
+      if (b == LF) {
+        return pos + 1;
+      }
+      if (b == CR) {
+        if (pos + 1 >= limite) {
+          return fimEntrada ? pos + 1 : -1;
+        }
+        return buffer[pos + 1] == LF ? pos + 2 : pos + 1;
+      }
+      throw new IllegalArgumentException("Conteúdo inesperado após aspas na posição " + (bytesDescartados + pos));
+    }
+  }
+
+  private int analisarCampoEntreAspas(int abertura) {
+    int pos = abertura + 1;
+    int inicioConteudo = pos;
+    boolean temEscape = false;
+    while (true) {
+      pos = busca.aspas(buffer, pos, limite);
+      if (pos >= limite) {
+        if (fimEntrada) {
+          throw new IllegalArgumentException("Aspas não fechadas no registro iniciado na posição " + posicaoRegistroAtual());
+        }
+        return -1;
+      }
+      if (pos + 1 >= limite && !fimEntrada) {
+        return -1;
+      }
+      if (pos + 1 < limite && buffer[pos + 1] == ASPAS) {
+        temEscape = true;
+        pos += 2;
+        continue;
+      }
+      break;
+    }
+    int tamanho = pos - inicioConteudo;
+    if (temEscape) {
+      adicionarCampoEscapado(inicioConteudo, tamanho);
+    } else {
+      adicionarCampo(visao, inicioConteudo, tamanho);
+    }
+    return pos + 1;
+  }
+
+  private void adicionarCampoEscapado(int inicioConteudo, int tamanho) {
+    if (usoEscapados + tamanho > escapados.length) {
+      escapados = Arrays.copyOf(escapados, Math.max(escapados.length * 2, usoEscapados + tamanho));
+      visaoEscapados = ByteBuffer.wrap(escapados);
+    }
+    int destino = usoEscapados;
+    int fim = inicioConteudo + tamanho;
+    for (int i = inicioConteudo; i < fim; i++) {
+      escapados[destino++] = buffer[i];
+      if (buffer[i] == ASPAS) {
+        i++;
+      }
+    }
+    adicionarCampo(visaoEscapados, usoEscapados, destino - usoEscapados);
+    usoEscapados = destino;
+  }
+
+  private void adicionarCampo(ByteBuffer origem, int inicio, int tamanho) {
+    if (quantidadeCampos == campos.length) {
+      int novoTamanho = Math.max(8, campos.length * 2);
+      campos = Arrays.copyOf(campos, novoTamanho);
+      for (int i = quantidadeCampos; i < novoTamanho; i++) {
+        campos[i] = new Campo(charset);
+      }
+    }
+    campos[quantidadeCampos++].apontar(origem, inicio, tamanho);
+  }
+
+  private long posicaoRegistroAtual() {
+    return bytesDescartados + inicioRegistro;
+  }
+
+  private void carregarMais() throws IOException {
+    if (inicioRegistro > 0) {
+      int pendente = limite - inicioRegistro;
+      System.arraycopy(buffer, inicioRegistro, buffer, 0, pendente);
+      bytesDescartados += inicioRegistro;
+      limite = pendente;
+      inicioRegistro = 0;
+      fimRegistro = 0;
+    } else if (limite == buffer.length) {
+      if (buffer.length >= TAMANHO_MAXIMO_REGISTRO) {
+        throw new IllegalArgumentException("Registro CSV excede " + TAMANHO_MAXIMO_REGISTRO + " bytes na posição " + bytesDescartados);
+      }
+      buffer = Arrays.copyOf(buffer, buffer.length * 2);
+      visao = ByteBuffer.wrap(buffer);
+    }
+    int lidos = entrada.read(buffer, limite, buffer.length - limite);
+    if (lidos < 0) {
+      fimEntrada = true;
+    } else {
+      limite += lidos;
+    }
+  }
+}
@@ -0,0 +1,26 @@
+package com.gof.criacional.decoder.csv;
+
+/**
+ * Como o {@link LeitorCSV} procura delimitadores, aspas e quebras de linha.
+ */
+public enum ModoVarredura {
+  /**
+   * Um byte por vez.
+   */
+  ESCALAR,
+
+  /**
+   * 32 ou 64 bytes por vez com a Vector API ({@code jdk.incubator.vector}),
+   * conforme o tamanho de vetor preferido da CPU. Exige a JVM iniciada com
+   * {@code --add-modules jdk.incubator.vector}; sem o módulo, o leitor usa a
+   * varredura escalar.
+   */
+  VETORIAL;
+
+  /**
+   * Indica se este modo pode ser usado nesta JVM.
+   */
+  public boolean isDisponivel() {
+    return this == ESCALAR || BuscaDelimitador.VETORIAL != null;
+  }
+}
@@ -1,12 +1,125 @@
 package com.gof.criacional.decoder.csv;
 
+import com.gof.criacional.decoder.DestinoPosicionado;
+import com.gof.criacional.decoder.DivisorArquivo;
 import com.gof.criacional.decoder.RegistrarClienteDecoder;
+import com.gof.criacional.decoder.TratadorFalhas;
+import com.gof.criacional.log.Log;
+import com.gof.criacional.modelo.Cliente;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
 
 public class RegistrarClienteCSVDecoder extends RegistrarClienteDecoder {
+  private static final MethodHandle CONVERSOR = LeitorCSV.conversor(Cliente.class, "nome", "cpf");
+
+  private final LeitorCSV leitor;
+  private final BuscaDelimitador busca;
+
+  public RegistrarClienteCSVDecoder() {
+    this(ModoVarredura.ESCALAR);
+  }
+
+  public RegistrarClienteCSVDecoder(ModoVarredura modo) {
+    this.leitor = new LeitorCSV(InputStream.nullInputStream(), ',', StandardCharsets.UTF_8, modo);
+    this.busca = BuscaDelimitador.para(modo);
+  }
+
+  @Override
+  public Cliente decode(String dados) {
+    boolean anterior = ocupar();
+    try {
+      leitor.reiniciar(new ByteArrayInputStream(dados.getBytes(StandardCharsets.UTF_8)));
+      if (!leitor.proximoRegistro()) {
+        throw new IllegalArgumentException("Mensagem CSV de cliente vazia");
+      }
+      return converterRegistro();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      liberar(anterior);
+    }
+  }
+
   @Override
-  public void decode(String dados) {
-    System.out.println("📄 [CSV] Decodificando cliente: " + dados);
-    String[] campos = dados.split(",");
-    System.out.println("   → Campos processados: " + campos.length);
+  public long decode(InputStream entrada, Consumer<? super Cliente> destino, TratadorFalhas tratador) throws IOException {
+    boolean anterior = ocupar();
+    try {
+      leitor.reiniciar(entrada);
+      long registros = 0;
+      while (leitor.proximoRegistro()) {
+        Cliente cliente;
+        try {
+          cliente = converterRegistro();
+        } catch (RuntimeException e) {
+          tratador.falha(leitor.posicaoRegistro(), leitor.registroBruto(), e);
+          continue;
+        }
+        destino.accept(cliente);
+        registros++;
+      }
+      return registros;
+    } finally {
+      liberar(anterior);
+    }
+  }
+
+  @Override
+  public long decodeTrecho(Path arquivo, long inicio, long fim, DestinoPosicionado<? super Cliente> destino,
+      TratadorFalhas tratador) throws IOException {
+    boolean anterior = ocupar();
+    try {
+      try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+        canal.position(inicio);
+        leitor.reiniciar(Channels.newInputStream(canal));
+        long registros = 0;
+        while (leitor.proximoRegistro() && inicio + leitor.posicaoRegistro() < fim) {
+          Cliente cliente;
+          try {
+            cliente = converterRegistro();
+          } catch (RuntimeException e) {
+            tratador.falha(inicio + leitor.posicaoRegistro(), leitor.registroBruto(), e);
+            continue;
+          }
+          destino.aceitar(cliente, inicio + leitor.posicaoFimRegistro());
+          registros++;
+        }
+        return registros;
+      }
+    } finally {
+      liberar(anterior);
+    }
+  }
+
+  // Respeita aspas: uma quebra de linha dentro de um campo não é início de registro
+  @Override
+  public DivisorArquivo dividirArquivo(Path arquivo, long tamanhoTrecho) throws IOException {
+    return DivisorArquivo.porRegistrosCSV(arquivo, tamanhoTrecho, busca);
+  }
+
+  private Cliente converterRegistro() {
+    if (leitor.quantidadeCampos() < 2) {
+      throw new IllegalArgumentException("Registro CSV de cliente com " + leitor.quantidadeCampos()
+          + " campo(s); esperado nome,cpf");
+    }
+    Cliente cliente;
+    try {
+      cliente = (Cliente) CONVERSOR.invokeExact(leitor);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new IllegalStateException(e);
+    }
+    Log.depuracao("📄 [CSV] Cliente decodificado: {}", cliente);
+    return cliente;
   }
 }
@@ -0,0 +1,77 @@
+package com.gof.criacional.decoder.textofixo;
+
+import java.util.List;
+
+/**
+ * Descrição declarativa das colunas de um registro de texto fixo.
+ *
+ * Cada coluna é definida por posição inicial (em bytes, a partir de zero),
+ * tamanho e tipo. Os layouts de cliente e conta seguem o formato dos
+ * arquivos de exemplo; outros layouts podem ser criados com {@link #of}.
+ */
+public final class LayoutTextoFixo {
+  public enum TipoColuna {
+    TEXTO,
+    NUMERICO
+  }
+
+  public record Coluna(String nome, int inicio, int tamanho, TipoColuna tipo) {
+    public Coluna {
+      if (inicio < 0 || tamanho <= 0) {
+        throw new IllegalArgumentException("Coluna " + nome + " com posição ou tamanho inválido");
+      }
+    }
+
+    public int fim() {
+      return inicio + tamanho;
+    }
+  }
+
+  public static final LayoutTextoFixo CLIENTE = of(
+      new Coluna("nome", 0, 18, TipoColuna.TEXTO),
+      new Coluna("cpf", 18, 11, TipoColuna.NUMERICO));
+
+  public static final LayoutTextoFixo CONTA = of(
+      new Coluna("tipo", 0, 14, TipoColuna.TEXTO),
+      new Coluna("numero", 14, 16, TipoColuna.NUMERICO));
+
+  private final List<Coluna> colunas;
+  private final int tamanhoRegistro;
+
+  private LayoutTextoFixo(List<Coluna> colunas) {
+    this.colunas = colunas;
+    this.tamanhoRegistro = colunas.stream().mapToInt(Coluna::fim).max().orElse(0);
+  }
+
+  public static LayoutTextoFixo of(Coluna... colunas) {
+    if (colunas.length == 0) {
+      throw new IllegalArgumentException("Layout precisa de ao menos uma coluna");
+    }
+    return new LayoutTextoFixo(List.of(colunas));
+  }
+
+  public List<Coluna> getColunas() {
+    return colunas;
+  }
+
+  public Coluna coluna(int indice) {
+    return colunas.get(indice);
+  }
+
+  public int quantidadeColunas() {
+    return colunas.size();
+  }
+
+  public int indice(String nome) {
+    for (int i = 0; i < colunas.size(); i++) {
+      if (colunas.get(i).nome().equals(nome)) {
+        return i;
+      }
+    }
+    throw new IllegalArgumentException("Coluna inexistente no layout: " + nome);
+  }
+
+  public int getTamanhoRegistro() {
+    return tamanhoRegistro;
+  }
+}
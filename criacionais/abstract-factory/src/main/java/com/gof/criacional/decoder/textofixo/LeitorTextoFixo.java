@@ -0,0 +1,232 @@
+package com.gof.criacional.decoder.textofixo;
+
+import com.gof.criacional.decoder.Campo;
+import com.gof.criacional.decoder.ConversorCompilado;
+import com.gof.criacional.decoder.RegistroBruto;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Leitor de registros de texto fixo, um por linha.
+ *
+ * Arquivos são mapeados em memória com {@link FileChannel#map} em janelas
+ * de até {@value #TAMANHO_JANELA} bytes, então arquivos maiores que 2 GB
+ * também são suportados. As colunas do layout são expostas como {@link Campo}
+ * apontando direto para o buffer mapeado, sem cópia de bytes.
+ *
+ * O charset padrão é ISO-8859-1, em que cada caractere ocupa exatamente um
+ * byte e as posições do layout coincidem com as posições no arquivo.
+ * Não é thread-safe: cada thread deve usar sua própria instância.
+ */
+public class LeitorTextoFixo implements AutoCloseable {
+  static final int TAMANHO_JANELA = 64 * 1024 * 1024;
+  private static final byte LF = '\n';
+  private static final byte CR = '\r';
+
+  private static final MethodHandle CAMPO_POR_INDICE;
+
+  static {
+    try {
+      CAMPO_POR_INDICE = MethodHandles.lookup().findVirtual(LeitorTextoFixo.class, "campo",
+          MethodType.methodType(Campo.class, int.class));
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  private final LayoutTextoFixo layout;
+  private final Charset charset;
+  private final Campo[] campos;
+
+  private FileChannel canal;
+  private long tamanhoArquivo;
+  private long inicioJanela;
+
+  private ByteBuffer buffer;
+  private int posicao;
+  private int inicioRegistro;
+  private int fimLinha;
+
+  public LeitorTextoFixo(LayoutTextoFixo layout) {
+    this(layout, StandardCharsets.ISO_8859_1);
+  }
+
+  public LeitorTextoFixo(LayoutTextoFixo layout, Charset charset) {
+    this.layout = layout;
+    this.charset = charset;
+    this.campos = new Campo[layout.quantidadeColunas()];
+    for (int i = 0; i < campos.length; i++) {
+      campos[i] = new Campo(charset);
+    }
+  }
+
+  /**
+   * Compila um conversor {@code (LeitorTextoFixo)Registro} em que cada componente
+   * do record é lido da coluna de mesmo nome no layout. Ver {@link ConversorCompilado}.
+   */
+  public static MethodHandle conversor(Class<? extends Record> registro, LayoutTextoFixo layout) {
+    return ConversorCompilado.compilar(registro, LeitorTextoFixo.class, CAMPO_POR_INDICE, layout::indice);
+  }
+
+  /**
+   * Passa a ler o arquivo informado, mapeando-o em memória.
+   */
+  public void abrir(Path arquivo) throws IOException {
+    abrir(arquivo, 0);
+  }
+
+  /**
+   * Passa a ler o arquivo a partir de {@code inicio}, que deve ser o começo de um registro.
+   */
+  public void abrir(Path arquivo, long inicio) throws IOException {
+    close();
+    canal = FileChannel.open(arquivo, StandardOpenOption.READ);
+    tamanhoArquivo = canal.size();
+    if (inicio < 0 || inicio > tamanhoArquivo) {
+      close();
+      throw new IllegalArgumentException("Posição " + inicio + " fora do arquivo de " + tamanhoArquivo + " bytes");
+    }
+    mapear(inicio);
+  }
+
+  /**
+   * Passa a ler registros de um buffer já em memória.
+   */
+  public void reiniciar(ByteBuffer dados) throws IOException {
+    close();
+    buffer = dados.slice();
+    tamanhoArquivo = buffer.limit();
+    inicioJanela = 0;
+    posicao = 0;
+  }
+
+  /**
+   * Avança para o próximo registro. Linhas em branco são ignoradas.
+   *
+   * @return {@code false} quando não há mais registros
+   */
+  public boolean proximoRegistro() throws IOException {
+    while (true) {
+      if (buffer == null || inicioJanela + posicao >= tamanhoArquivo) {
+        return false;
+      }
+      int fim = buscarFimLinha(posicao);
+      if (fim < 0) {
+        if (canal == null || inicioJanela + buffer.limit() >= tamanhoArquivo) {
+          fim = buffer.limit();
+        } else if (posicao == 0) {
+          throw new IllegalArgumentException("Registro maior que a janela de mapeamento na posição " + inicioJanela);
+        } else {
+          mapear(inicioJanela + posicao);
+          continue;
+        }
+      }
+      inicioRegistro = posicao;
+      posicao = fim < buffer.limit() ? fim + 1 : fim;
+      fimLinha = fim > inicioRegistro && buffer.get(fim - 1) == CR ? fim - 1 : fim;
+      if (fimLinha == inicioRegistro) {
+        continue;
+      }
+      apontarCampos();
+      return true;
+    }
+  }
+
+  public LayoutTextoFixo getLayout() {
+    return layout;
+  }
+
+  /**
+   * Visão da coluna no registro atual, já sem espaços de preenchimento.
+   * Válida apenas até a próxima chamada de {@link #proximoRegistro()}.
+   */
+  public Campo campo(int indice) {
+    return campos[indice];
+  }
+
+  /**
+   * Confere se as colunas {@link LayoutTextoFixo.TipoColuna#NUMERICO} do registro
+   * atual contêm apenas dígitos.
+   *
+   * @throws IllegalArgumentException na primeira coluna inválida
+   */
+  public void validarColunas() {
+    for (int i = 0; i < campos.length; i++) {
+      LayoutTextoFixo.Coluna coluna = layout.coluna(i);
+      if (coluna.tipo() == LayoutTextoFixo.TipoColuna.NUMERICO && !campos[i].isNumerico()) {
+        throw new IllegalArgumentException("Coluna " + coluna.nome() + " não numérica no registro da posição "
+            + posicaoRegistro() + ": '" + campos[i] + "'");
+      }
+    }
+  }
+
+  /**
+   * Bytes originais do registro atual, sem o terminador de linha.
+   */
+  public RegistroBruto registroBruto() {
+    byte[] bytes = new byte[fimLinha - inicioRegistro];
+    buffer.get(inicioRegistro, bytes);
+    return RegistroBruto.deBytes(bytes, 0, bytes.length, charset);
+  }
+
+  /**
+   * Posição, em bytes desde o início do arquivo, onde o registro atual começa.
+   */
+  public long posicaoRegistro() {
+    return inicioJanela + inicioRegistro;
+  }
+
+  /**
+   * Posição, em bytes desde o início do arquivo, logo após o registro atual.
+   */
+  public long posicaoFimRegistro() {
+    return inicioJanela + posicao;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (canal != null) {
+      canal.close();
+      canal = null;
+    }
+    buffer = null;
+  }
+
+  private void apontarCampos() {
+    int tamanhoLinha = fimLinha - inicioRegistro;
+    for (int i = 0; i < campos.length; i++) {
+      LayoutTextoFixo.Coluna coluna = layout.coluna(i);
+      int inicio = Math.min(coluna.inicio(), tamanhoLinha);
+      int fim = Math.min(coluna.fim(), tamanhoLinha);
+      campos[i].apontar(buffer, inicioRegistro + inicio, fim - inicio);
+      campos[i].aparar();
+    }
+  }
+
+  private int buscarFimLinha(int de) {
+    ByteBuffer dados = buffer;
+    int limite = dados.limit();
+    for (int i = de; i < limite; i++) {
+      if (dados.get(i) == LF) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private void mapear(long inicio) throws IOException {
+    long tamanho = Math.min(TAMANHO_JANELA, tamanhoArquivo - inicio);
+    buffer = canal.map(FileChannel.MapMode.READ_ONLY, inicio, tamanho);
+    inicioJanela = inicio;
+    posicao = 0;
+  }
+}
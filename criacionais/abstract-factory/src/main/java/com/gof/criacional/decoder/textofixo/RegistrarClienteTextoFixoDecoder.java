@@ -1,11 +1,107 @@
 package com.gof.criacional.decoder.textofixo;
 
+import com.gof.criacional.decoder.DestinoPosicionado;
+import com.gof.criacional.decoder.DivisorArquivo;
 import com.gof.criacional.decoder.RegistrarClienteDecoder;
+import com.gof.criacional.decoder.TratadorFalhas;
+import com.gof.criacional.log.Log;
+import com.gof.criacional.modelo.Cliente;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.function.Consumer;
 
 public class RegistrarClienteTextoFixoDecoder extends RegistrarClienteDecoder {
+  private static final MethodHandle CONVERSOR_PADRAO = LeitorTextoFixo.conversor(Cliente.class, LayoutTextoFixo.CLIENTE);
+
+  private final LeitorTextoFixo leitor;
+  // null com o layout padrão, que usa o handle estático
+  private final MethodHandle conversor;
+
+  public RegistrarClienteTextoFixoDecoder() {
+    this(LayoutTextoFixo.CLIENTE);
+  }
+
+  public RegistrarClienteTextoFixoDecoder(LayoutTextoFixo layout) {
+    this.leitor = new LeitorTextoFixo(layout);
+    this.conversor = layout == LayoutTextoFixo.CLIENTE ? null : LeitorTextoFixo.conversor(Cliente.class, layout);
+  }
+
   @Override
-  public void decode(String dados) {
-    System.out.println("📝 [TEXTO FIXO] Decodificando cliente: " + dados);
-    System.out.println("   → Extraindo posições fixas...");
+  public Cliente decode(String dados) {
+    boolean anterior = ocupar();
+    try {
+      leitor.reiniciar(ByteBuffer.wrap(dados.getBytes(StandardCharsets.ISO_8859_1)));
+      if (!leitor.proximoRegistro()) {
+        throw new IllegalArgumentException("Mensagem de texto fixo de cliente vazia");
+      }
+      return converterRegistro();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      liberar(anterior);
+    }
+  }
+
+  @Override
+  protected Charset getCharset() {
+    return StandardCharsets.ISO_8859_1;
+  }
+
+  // Mapeia o arquivo em memória e extrai as colunas direto do buffer mapeado
+  @Override
+  public long decodeArquivo(Path arquivo, Consumer<? super Cliente> destino, TratadorFalhas tratador) throws IOException {
+    return decodeArquivo(arquivo, 0, (cliente, posicaoFim) -> destino.accept(cliente), tratador);
+  }
+
+  @Override
+  public long decodeTrecho(Path arquivo, long inicio, long fim, DestinoPosicionado<? super Cliente> destino,
+      TratadorFalhas tratador) throws IOException {
+    boolean anterior = ocupar();
+    try {
+      long registros = 0;
+      try (LeitorTextoFixo l = leitor) {
+        l.abrir(arquivo, inicio);
+        while (l.proximoRegistro() && l.posicaoRegistro() < fim) {
+          Cliente cliente;
+          try {
+            cliente = converterRegistro();
+          } catch (RuntimeException e) {
+            tratador.falha(l.posicaoRegistro(), l.registroBruto(), e);
+            continue;
+          }
+          destino.aceitar(cliente, l.posicaoFimRegistro());
+          registros++;
+        }
+      }
+      return registros;
+    } finally {
+      liberar(anterior);
+    }
+  }
+
+  @Override
+  public DivisorArquivo dividirArquivo(Path arquivo, long tamanhoTrecho) throws IOException {
+    return DivisorArquivo.porLinhas(arquivo, tamanhoTrecho);
+  }
+
+  private Cliente converterRegistro() {
+    leitor.validarColunas();
+    Cliente cliente;
+    try {
+      // O handle estático é constante para o JIT, que compila a conversão inline
+      cliente = conversor == null ? (Cliente) CONVERSOR_PADRAO.invokeExact(leitor) : (Cliente) conversor.invokeExact(leitor);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new IllegalStateException(e);
+    }
+    Log.depuracao("📝 [TEXTO FIXO] Cliente decodificado: {}", cliente);
+    return cliente;
   }
 }
@@ -1,11 +1,107 @@
 package com.gof.criacional.decoder.textofixo;
 
+import com.gof.criacional.decoder.DestinoPosicionado;
+import com.gof.criacional.decoder.DivisorArquivo;
 import com.gof.criacional.decoder.RegistrarContaDecoder;
+import com.gof.criacional.decoder.TratadorFalhas;
+import com.gof.criacional.log.Log;
+import com.gof.criacional.modelo.Conta;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.function.Consumer;
 
 public class RegistrarContaTextoFixoDecoder extends RegistrarContaDecoder {
+  private static final MethodHandle CONVERSOR_PADRAO = LeitorTextoFixo.conversor(Conta.class, LayoutTextoFixo.CONTA);
+
+  private final LeitorTextoFixo leitor;
+  // null com o layout padrão, que usa o handle estático
+  private final MethodHandle conversor;
+
+  public RegistrarContaTextoFixoDecoder() {
+    this(LayoutTextoFixo.CONTA);
+  }
+
+  public RegistrarContaTextoFixoDecoder(LayoutTextoFixo layout) {
+    this.leitor = new LeitorTextoFixo(layout);
+    this.conversor = layout == LayoutTextoFixo.CONTA ? null : LeitorTextoFixo.conversor(Conta.class, layout);
+  }
+
   @Override
-  public void decode(String dados) {
-    System.out.println("💳 [TEXTO FIXO] Decodificando conta: " + dados);
-    System.out.println("   → Extraindo posições fixas de conta...");
+  public Conta decode(String dados) {
+    boolean anterior = ocupar();
+    try {
+      leitor.reiniciar(ByteBuffer.wrap(dados.getBytes(StandardCharsets.ISO_8859_1)));
+      if (!leitor.proximoRegistro()) {
+        throw new IllegalArgumentException("Mensagem de texto fixo de conta vazia");
+      }
+      return converterRegistro();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      liberar(anterior);
+    }
+  }
+
+  @Override
+  protected Charset getCharset() {
+    return StandardCharsets.ISO_8859_1;
+  }
+
+  // Mapeia o arquivo em memória e extrai as colunas direto do buffer mapeado
+  @Override
+  public long decodeArquivo(Path arquivo, Consumer<? super Conta> destino, TratadorFalhas tratador) throws IOException {
+    return decodeArquivo(arquivo, 0, (conta, posicaoFim) -> destino.accept(conta), tratador);
+  }
+
+  @Override
+  public long decodeTrecho(Path arquivo, long inicio, long fim, DestinoPosicionado<? super Conta> destino,
+      TratadorFalhas tratador) throws IOException {
+    boolean anterior = ocupar();
+    try {
+      long registros = 0;
+      try (LeitorTextoFixo l = leitor) {
+        l.abrir(arquivo, inicio);
+        while (l.proximoRegistro() && l.posicaoRegistro() < fim) {
+          Conta conta;
+          try {
+            conta = converterRegistro();
+          } catch (RuntimeException e) {
+            tratador.falha(l.posicaoRegistro(), l.registroBruto(), e);
+            continue;
+          }
+          destino.aceitar(conta, l.posicaoFimRegistro());
+          registros++;
+        }
+      }
+      return registros;
+    } finally {
+      liberar(anterior);
+    }
+  }
+
+  @Override
+  public DivisorArquivo dividirArquivo(Path arquivo, long tamanhoTrecho) throws IOException {
+    return DivisorArquivo.porLinhas(arquivo, tamanhoTrecho);
+  }
+
+  private Conta converterRegistro() {
+    leitor.validarColunas();
+    Conta conta;
+    try {
+      // O handle estático é constante para o JIT, que compila a conversão inline
+      conta = conversor == null ? (Conta) CONVERSOR_PADRAO.invokeExact(leitor) : (Conta) conversor.invokeExact(leitor);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new IllegalStateException(e);
+    }
+    Log.depuracao("💳 [TEXTO FIXO] Conta decodificada: {}", conta);
+    return conta;
   }
 }
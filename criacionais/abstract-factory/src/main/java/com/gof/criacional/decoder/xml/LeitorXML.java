@@ -0,0 +1,138 @@
+package com.gof.criacional.decoder.xml;
+
+import com.gof.criacional.decoder.RegistroBruto;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Leitor XML em streaming (StAX) que entrega um registro por vez.
+ *
+ * Percorre o documento elemento a elemento e, a cada ocorrência do elemento
+ * de registro (por exemplo {@code <cliente>}), guarda o texto dos filhos
+ * esperados. O documento nunca é carregado inteiro em memória, então o heap
+ * usado não depende do tamanho do arquivo. Filhos desconhecidos são ignorados.
+ */
+public class LeitorXML implements AutoCloseable {
+  private final XMLStreamReader xml;
+  private final String elementoRegistro;
+  private final String[] nomesCampos;
+  private final String[] valores;
+
+  public LeitorXML(XMLInputFactory fabrica, InputStream entrada, String elementoRegistro, String... nomesCampos)
+      throws XMLStreamException {
+    this(fabrica.createXMLStreamReader(entrada), elementoRegistro, nomesCampos);
+  }
+
+  public LeitorXML(XMLInputFactory fabrica, Reader entrada, String elementoRegistro, String... nomesCampos)
+      throws XMLStreamException {
+    this(fabrica.createXMLStreamReader(entrada), elementoRegistro, nomesCampos);
+  }
+
+  private LeitorXML(XMLStreamReader xml, String elementoRegistro, String... nomesCampos) {
+    this.xml = xml;
+    this.elementoRegistro = elementoRegistro;
+    this.nomesCampos = nomesCampos;
+    this.valores = new String[nomesCampos.length];
+  }
+
+  /**
+   * Avança até o próximo elemento de registro e lê seus campos.
+   *
+   * @return {@code false} quando o documento terminou
+   */
+  public boolean proximoRegistro() throws XMLStreamException {
+    while (xml.hasNext()) {
+      if (xml.next() == XMLStreamConstants.START_ELEMENT && elementoRegistro.equals(xml.getLocalName())) {
+        lerCampos();
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Texto do campo no registro atual, ou {@code null} se o elemento não apareceu.
+   */
+  public String campo(int indice) {
+    return valores[indice];
+  }
+
+  /**
+   * Texto do campo convertido em {@code long}.
+   *
+   * @throws IllegalArgumentException se o elemento não apareceu ou não é numérico
+   */
+  public long campoLong(int indice) {
+    String texto = valores[indice];
+    try {
+      return Long.parseLong(texto);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Elemento <" + nomesCampos[indice] + "> não numérico: '" + texto + "'", e);
+    }
+  }
+
+  public int quantidadeCampos() {
+    return valores.length;
+  }
+
+  /**
+   * Registro atual remontado a partir dos campos lidos (filhos ignorados não aparecem).
+   */
+  public RegistroBruto registroBruto() {
+    StringBuilder bruto = new StringBuilder("<").append(elementoRegistro).append('>');
+    for (int i = 0; i < nomesCampos.length; i++) {
+      if (valores[i] != null) {
+        bruto.append('<').append(nomesCampos[i]).append('>').append(valores[i])
+            .append("</").append(nomesCampos[i]).append('>');
+      }
+    }
+    return RegistroBruto.deTexto(bruto.append("</").append(elementoRegistro).append('>').toString());
+  }
+
+  /**
+   * Posição aproximada, em caracteres, do fim do registro atual.
+   */
+  public long posicao() {
+    return xml.getLocation().getCharacterOffset();
+  }
+
+  @Override
+  public void close() throws XMLStreamException {
+    xml.close();
+  }
+
+  private void lerCampos() throws XMLStreamException {
+    Arrays.fill(valores, null);
+    int profundidade = 1;
+    while (profundidade > 0) {
+      int evento = xml.next();
+      if (evento == XMLStreamConstants.START_ELEMENT) {
+        int indice = indiceCampo(xml.getLocalName());
+        if (indice >= 0 && profundidade == 1) {
+          valores[indice] = xml.getElementText().trim();
+        } else {
+          profundidade++;
+        }
+      } else if (evento == XMLStreamConstants.END_ELEMENT) {
+        profundidade--;
+      } else if (evento == XMLStreamConstants.END_DOCUMENT) {
+        throw new XMLStreamException("Documento terminou dentro de <" + elementoRegistro + ">");
+      }
+    }
+  }
+
+  private int indiceCampo(String nome) {
+    for (int i = 0; i < nomesCampos.length; i++) {
+      if (nomesCampos[i].equals(nome)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
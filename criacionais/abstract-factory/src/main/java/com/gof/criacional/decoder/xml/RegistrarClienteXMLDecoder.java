@@ -1,11 +1,62 @@
 package com.gof.criacional.decoder.xml;
 
+import com.gof.criacional.decoder.DecoderSemEstado;
 import com.gof.criacional.decoder.RegistrarClienteDecoder;
+import com.gof.criacional.decoder.TratadorFalhas;
+import com.gof.criacional.factory.XMLDecoderFactory;
+import com.gof.criacional.log.Log;
+import com.gof.criacional.modelo.Cliente;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.util.function.Consumer;
+
+// Sem estado: cada chamada cria seu próprio XMLStreamReader
+public class RegistrarClienteXMLDecoder extends RegistrarClienteDecoder implements DecoderSemEstado {
+  private static final String ELEMENTO = "cliente";
+  private static final String[] CAMPOS = {"nome", "cpf"};
 
-public class RegistrarClienteXMLDecoder extends RegistrarClienteDecoder {
   @Override
-  public void decode(String dados) {
-    System.out.println("🔖 [XML] Decodificando cliente: " + dados);
-    System.out.println("   → Processando tags XML...");
+  public Cliente decode(String dados) {
+    try (LeitorXML leitor = new LeitorXML(XMLDecoderFactory.getXMLInputFactory(), new StringReader(dados), ELEMENTO, CAMPOS)) {
+      if (!leitor.proximoRegistro()) {
+        throw new IllegalArgumentException("Mensagem XML sem elemento <" + ELEMENTO + ">");
+      }
+      return converterRegistro(leitor);
+    } catch (XMLStreamException e) {
+      throw new IllegalArgumentException("XML de cliente inválido: " + e.getMessage(), e);
+    }
+  }
+
+  // Percorre um documento <clientes> em streaming, um <cliente> por vez
+  @Override
+  public long decode(InputStream entrada, Consumer<? super Cliente> destino, TratadorFalhas tratador) {
+    long registros = 0;
+    try (LeitorXML leitor = new LeitorXML(XMLDecoderFactory.getXMLInputFactory(), entrada, ELEMENTO, CAMPOS)) {
+      while (leitor.proximoRegistro()) {
+        Cliente cliente;
+        try {
+          cliente = converterRegistro(leitor);
+        } catch (RuntimeException e) {
+          tratador.falha(leitor.posicao(), leitor.registroBruto(), e);
+          continue;
+        }
+        destino.accept(cliente);
+        registros++;
+      }
+    } catch (XMLStreamException e) {
+      throw new IllegalArgumentException("XML de clientes inválido após " + registros + " registros: " + e.getMessage(), e);
+    }
+    return registros;
+  }
+
+  private Cliente converterRegistro(LeitorXML leitor) {
+    if (leitor.campo(0) == null || leitor.campo(1) == null) {
+      throw new IllegalArgumentException("Elemento <cliente> sem <nome> ou <cpf>");
+    }
+    Cliente cliente = new Cliente(leitor.campo(0), leitor.campoLong(1));
+    Log.depuracao("🔖 [XML] Cliente decodificado: {}", cliente);
+    return cliente;
   }
 }
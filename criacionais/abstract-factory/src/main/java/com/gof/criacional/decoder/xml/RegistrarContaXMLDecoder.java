@@ -1,11 +1,62 @@
 package com.gof.criacional.decoder.xml;
 
+import com.gof.criacional.decoder.DecoderSemEstado;
 import com.gof.criacional.decoder.RegistrarContaDecoder;
+import com.gof.criacional.decoder.TratadorFalhas;
+import com.gof.criacional.factory.XMLDecoderFactory;
+import com.gof.criacional.log.Log;
+import com.gof.criacional.modelo.Conta;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.util.function.Consumer;
+
+// Sem estado: cada chamada cria seu próprio XMLStreamReader
+public class RegistrarContaXMLDecoder extends RegistrarContaDecoder implements DecoderSemEstado {
+  private static final String ELEMENTO = "conta";
+  private static final String[] CAMPOS = {"numero", "tipo"};
 
-public class RegistrarContaXMLDecoder extends RegistrarContaDecoder {
   @Override
-  public void decode(String dados) {
-    System.out.println("💳 [XML] Decodificando conta: " + dados);
-    System.out.println("   → Processando tags XML de conta...");
+  public Conta decode(String dados) {
+    try (LeitorXML leitor = new LeitorXML(XMLDecoderFactory.getXMLInputFactory(), new StringReader(dados), ELEMENTO, CAMPOS)) {
+      if (!leitor.proximoRegistro()) {
+        throw new IllegalArgumentException("Mensagem XML sem elemento <" + ELEMENTO + ">");
+      }
+      return converterRegistro(leitor);
+    } catch (XMLStreamException e) {
+      throw new IllegalArgumentException("XML de conta inválido: " + e.getMessage(), e);
+    }
+  }
+
+  // Percorre um documento <contas> em streaming, uma <conta> por vez
+  @Override
+  public long decode(InputStream entrada, Consumer<? super Conta> destino, TratadorFalhas tratador) {
+    long registros = 0;
+    try (LeitorXML leitor = new LeitorXML(XMLDecoderFactory.getXMLInputFactory(), entrada, ELEMENTO, CAMPOS)) {
+      while (leitor.proximoRegistro()) {
+        Conta conta;
+        try {
+          conta = converterRegistro(leitor);
+        } catch (RuntimeException e) {
+          tratador.falha(leitor.posicao(), leitor.registroBruto(), e);
+          continue;
+        }
+        destino.accept(conta);
+        registros++;
+      }
+    } catch (XMLStreamException e) {
+      throw new IllegalArgumentException("XML de contas inválido após " + registros + " registros: " + e.getMessage(), e);
+    }
+    return registros;
+  }
+
+  private Conta converterRegistro(LeitorXML leitor) {
+    if (leitor.campo(0) == null || leitor.campo(1) == null) {
+      throw new IllegalArgumentException("Elemento <conta> sem <numero> ou <tipo>");
+    }
+    Conta conta = new Conta(leitor.campoLong(0), leitor.campo(1));
+    Log.depuracao("💳 [XML] Conta decodificada: {}", conta);
+    return conta;
   }
 }
@@ -2,31 +2,77 @@ package com.gof.criacional.factory;
 
 import com.gof.criacional.decoder.RegistrarClienteDecoder;
 import com.gof.criacional.decoder.RegistrarContaDecoder;
+import com.gof.criacional.decoder.csv.ModoVarredura;
 import com.gof.criacional.decoder.csv.RegistrarClienteCSVDecoder;
 import com.gof.criacional.decoder.csv.RegistrarContaCSVDecoder;
 
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
 public class CSVDecoderFactory extends DecoderFactory {
-  private static CSVDecoderFactory instance;
+  private final Map<ModoVarredura, ReusoDecoder<RegistrarClienteDecoder>> clienteDecoders =
+      porModo(RegistrarClienteCSVDecoder.class, RegistrarClienteCSVDecoder::new, RegistrarClienteDecoder::isEmUso);
+  private final Map<ModoVarredura, ReusoDecoder<RegistrarContaDecoder>> contaDecoders =
+      porModo(RegistrarContaCSVDecoder.class, RegistrarContaCSVDecoder::new, RegistrarContaDecoder::isEmUso);
+  private volatile ModoVarredura modoVarredura = ModoVarredura.ESCALAR;
 
   private CSVDecoderFactory() {
     // Construtor privado para Singleton
   }
 
-  public static synchronized CSVDecoderFactory getInstance() {
-    if (instance == null) {
-      instance = new CSVDecoderFactory();
-    }
-    return instance;
+  // Holder idiom: lazy e thread-safe sem sincronização em cada chamada
+  private static class InstanceHolder {
+    private static final CSVDecoderFactory INSTANCE = new CSVDecoderFactory();
+  }
+
+  public static CSVDecoderFactory getInstance() {
+    return InstanceHolder.INSTANCE;
+  }
+
+  public ModoVarredura getModoVarredura() {
+    return modoVarredura;
+  }
+
+  /**
+   * Define como os próximos decoders procuram delimitadores. {@link ModoVarredura#VETORIAL}
+   * cai para a varredura escalar se a JVM não tiver o módulo {@code jdk.incubator.vector}.
+   */
+  public void setModoVarredura(ModoVarredura modoVarredura) {
+    this.modoVarredura = modoVarredura;
   }
 
   @Override
   public RegistrarClienteDecoder createRegistrarClienteDecoder() {
-    return new RegistrarClienteCSVDecoder();
+    return clienteDecoders.get(modoVarredura).obter(getModoReuso());
   }
 
   @Override
   public RegistrarContaDecoder createRegistrarContaDecoder() {
-    return new RegistrarContaCSVDecoder();
+    return contaDecoders.get(modoVarredura).obter(getModoReuso());
   }
 
+  private static <T> Map<ModoVarredura, ReusoDecoder<T>> porModo(Class<? extends T> tipo,
+      Function<ModoVarredura, ? extends T> criador, Predicate<T> emUso) {
+    Map<ModoVarredura, ReusoDecoder<T>> porModo = new EnumMap<>(ModoVarredura.class);
+    for (ModoVarredura modo : ModoVarredura.values()) {
+      porModo.put(modo, new ReusoDecoder<>(tipo, () -> criador.apply(modo), emUso));
+    }
+    return porModo;
+  }
+
+  // Publicado em META-INF/services para o RegistroDecoderFactory
+  public static class Provedor implements ProvedorDecoderFactory {
+    @Override
+    public Set<String> origens() {
+      return Set.of("csv");
+    }
+
+    @Override
+    public DecoderFactory fabrica() {
+      return getInstance();
+    }
+  }
 }
@@ -3,17 +3,30 @@ package com.gof.criacional.factory;
 import com.gof.criacional.decoder.RegistrarClienteDecoder;
 import com.gof.criacional.decoder.RegistrarContaDecoder;
 
+import java.util.Objects;
+
 public abstract class DecoderFactory {
+  private volatile ModoReuso modoReuso = ModoReuso.POR_THREAD;
+
   public abstract RegistrarClienteDecoder createRegistrarClienteDecoder();
 
   public abstract RegistrarContaDecoder createRegistrarContaDecoder();
 
+  public ModoReuso getModoReuso() {
+    return modoReuso;
+  }
+
+  // Controla se create...Decoder() reaproveita instâncias; ver ModoReuso
+  public void setModoReuso(ModoReuso modoReuso) {
+    this.modoReuso = Objects.requireNonNull(modoReuso);
+  }
+
+  // Consulta o registro montado via ServiceLoader; a origem ignora maiúsculas
   public static DecoderFactory fabricaParaOrigem(String origem) {
-    return switch (origem) {
-      case "xml" -> XMLDecoderFactory.getInstance();
-      case "csv" -> CSVDecoderFactory.getInstance();
-      case "fixo" -> TextoFixoDecoderFactory.getInstance();
-      default -> throw new IllegalArgumentException("Origem desconhecida: " + origem);
-    };
+    DecoderFactory factory = RegistroDecoderFactory.getInstance().buscar(origem);
+    if (factory == null) {
+      throw new IllegalArgumentException("Origem desconhecida: " + origem);
+    }
+    return factory;
   }
 }
@@ -0,0 +1,131 @@
+package com.gof.criacional.factory;
+
+import com.gof.criacional.decoder.EntradaDescompactada;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Descobre o formato de uma entrada (CSV, XML ou texto fixo) olhando apenas os
+ * primeiros {@value #TAMANHO_AMOSTRA} bytes.
+ *
+ * A amostra é lida com {@code mark}/{@code reset} de um {@link BufferedInputStream},
+ * então a decodificação continua do início da mesma entrada, sem reler a origem
+ * nem exigir uma passada de pré-processamento.
+ */
+public final class DetectorOrigem {
+  public static final int TAMANHO_AMOSTRA = 4096;
+  private static final int TAMANHO_BUFFER = 64 * 1024;
+
+  /**
+   * Resultado da detecção. {@code entrada} deve ser usada no lugar da original.
+   */
+  public record Deteccao(String origem, DecoderFactory fabrica, InputStream entrada) {
+  }
+
+  private DetectorOrigem() {
+  }
+
+  /**
+   * Entradas gzip são descompactadas antes da detecção; a entrada devolvida já
+   * entrega o conteúdo descompactado.
+   */
+  public static Deteccao detectar(InputStream entrada) throws IOException {
+    InputStream descompactada = EntradaDescompactada.abrir(entrada);
+    BufferedInputStream bufferizada = new BufferedInputStream(descompactada, TAMANHO_BUFFER);
+    bufferizada.mark(TAMANHO_AMOSTRA);
+    byte[] amostra = bufferizada.readNBytes(TAMANHO_AMOSTRA);
+    bufferizada.reset();
+    if (temBom(amostra, amostra.length)) {
+      bufferizada.skipNBytes(3);
+    }
+
+    String origem = classificar(amostra, amostra.length, amostra.length < TAMANHO_AMOSTRA);
+    return new Deteccao(origem, DecoderFactory.fabricaParaOrigem(origem), bufferizada);
+  }
+
+  /**
+   * Classifica a amostra: XML se começa com {@code <}; CSV se todas as linhas têm
+   * o mesmo número (não nulo) de delimitadores fora de aspas; texto fixo se todas
+   * as linhas têm o mesmo tamanho ou não há vírgulas.
+   */
+  static String classificar(byte[] amostra, int tamanho, boolean completa) {
+    int inicio = pularBomEEspacos(amostra, tamanho);
+    if (inicio == tamanho) {
+      throw new IllegalArgumentException("Entrada vazia: não é possível detectar o formato");
+    }
+    if (amostra[inicio] == '<') {
+      return "xml";
+    }
+
+    // Sem o fim da entrada, a última linha da amostra pode estar cortada
+    int fim = tamanho;
+    if (!completa) {
+      int ultimaQuebra = ultimaQuebraDeLinha(amostra, inicio, tamanho);
+      if (ultimaQuebra > inicio) {
+        fim = ultimaQuebra;
+      }
+    }
+
+    int linhas = 0;
+    int virgulasPorLinha = -1;
+    int tamanhoLinha = -1;
+    boolean virgulasConsistentes = true;
+    boolean tamanhosIguais = true;
+    boolean temVirgula = false;
+    boolean entreAspas = false;
+    int virgulas = 0;
+    int inicioLinha = inicio;
+
+    for (int i = inicio; i <= fim; i++) {
+      byte b = i < fim ? amostra[i] : (byte) '\n';
+      if (b == '"') {
+        entreAspas = !entreAspas;
+      } else if (b == ',' && !entreAspas) {
+        virgulas++;
+        temVirgula = true;
+      } else if (b == '\n' && !entreAspas) {
+        int fimLinha = i > inicioLinha && amostra[i - 1] == '\r' ? i - 1 : i;
+        if (fimLinha > inicioLinha) {
+          linhas++;
+          virgulasConsistentes &= virgulas > 0 && (virgulasPorLinha < 0 || virgulas == virgulasPorLinha);
+          tamanhosIguais &= tamanhoLinha < 0 || fimLinha - inicioLinha == tamanhoLinha;
+          virgulasPorLinha = virgulas;
+          tamanhoLinha = fimLinha - inicioLinha;
+        }
+        virgulas = 0;
+        inicioLinha = i + 1;
+      }
+    }
+
+    if (virgulasConsistentes && linhas > 0) {
+      return "csv";
+    }
+    if ((tamanhosIguais && linhas > 1) || !temVirgula) {
+      return "fixo";
+    }
+    throw new IllegalArgumentException("Formato não reconhecido nos primeiros " + tamanho + " bytes");
+  }
+
+  private static int pularBomEEspacos(byte[] amostra, int tamanho) {
+    int i = temBom(amostra, tamanho) ? 3 : 0;
+    while (i < tamanho && (amostra[i] == ' ' || amostra[i] == '\t' || amostra[i] == '\r' || amostra[i] == '\n')) {
+      i++;
+    }
+    return i;
+  }
+
+  private static boolean temBom(byte[] amostra, int tamanho) {
+    return tamanho >= 3 && (amostra[0] & 0xFF) == 0xEF && (amostra[1] & 0xFF) == 0xBB && (amostra[2] & 0xFF) == 0xBF;
+  }
+
+  private static int ultimaQuebraDeLinha(byte[] amostra, int inicio, int tamanho) {
+    for (int i = tamanho - 1; i >= inicio; i--) {
+      if (amostra[i] == '\n') {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
@@ -0,0 +1,23 @@
+package com.gof.criacional.factory;
+
+/**
+ * Define como as factories entregam instâncias de decoder.
+ */
+public enum ModoReuso {
+  /**
+   * Uma instância nova a cada chamada de {@code create...Decoder()}.
+   */
+  NOVA_INSTANCIA,
+
+  /**
+   * Decoders sem estado ({@code DecoderSemEstado}) são compartilhados por todas
+   * as threads; decoders com estado (buffers, leitores) têm uma instância
+   * reaproveitada por thread.
+   *
+   * Se a instância da thread estiver no meio de uma decodificação (um destino
+   * que decodifica outra mensagem, ou uma tarefa de ForkJoin executada enquanto
+   * a thread espera outra), a chamada recebe uma instância nova.
+   * Em virtual threads, que vivem apenas uma tarefa, o ganho é pequeno.
+   */
+  POR_THREAD
+}
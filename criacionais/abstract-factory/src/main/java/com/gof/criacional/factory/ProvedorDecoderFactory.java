@@ -0,0 +1,20 @@
+package com.gof.criacional.factory;
+
+import java.util.Set;
+
+/**
+ * Ponto de extensão para registrar novas famílias de decoders.
+ *
+ * Implementações são descobertas com {@link java.util.ServiceLoader} a partir de
+ * {@code META-INF/services/com.gof.criacional.factory.ProvedorDecoderFactory}.
+ * Para adicionar um formato (JSON, Parquet...) basta publicar um provedor nesse
+ * arquivo; {@link DecoderFactory} não precisa ser alterada.
+ */
+public interface ProvedorDecoderFactory {
+  /**
+   * Chaves de origem atendidas por esta factory. A comparação ignora maiúsculas.
+   */
+  Set<String> origens();
+
+  DecoderFactory fabrica();
+}
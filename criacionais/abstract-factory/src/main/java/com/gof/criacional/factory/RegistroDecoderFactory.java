@@ -0,0 +1,144 @@
+package com.gof.criacional.factory;
+
+import com.gof.criacional.log.Log;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Registro imutável das factories disponíveis, indexado por origem.
+ *
+ * Os provedores são descobertos uma única vez, na primeira consulta. As chaves
+ * são normalizadas para minúsculas na montagem e guardadas em uma tabela de
+ * endereçamento aberto; a busca calcula o hash sem criar Strings e compara
+ * ignorando maiúsculas, então {@link #buscar} não aloca nada.
+ *
+ * A descoberta só indexa os provedores: a factory de cada um é criada na primeira
+ * busca por uma de suas origens, fora do tempo medido em
+ * {@link #getTempoDescobertaNanos()}.
+ */
+public final class RegistroDecoderFactory {
+  public static final long LIMITE_DESCOBERTA_NANOS = 50_000_000L;
+
+  private final String[] chaves;
+  private final int[] provedorPorChave;
+  private final ProvedorDecoderFactory[] provedores;
+  private final AtomicReferenceArray<DecoderFactory> fabricas;
+  private final int mascara;
+  private final Set<String> origens;
+  private final long tempoDescobertaNanos;
+
+  private static class InstanceHolder {
+    private static final RegistroDecoderFactory INSTANCE = descobrir();
+  }
+
+  public static RegistroDecoderFactory getInstance() {
+    return InstanceHolder.INSTANCE;
+  }
+
+  private RegistroDecoderFactory(List<ProvedorDecoderFactory> provedores, long inicio) {
+    Set<String> todas = new TreeSet<>();
+    int quantidade = 0;
+    for (ProvedorDecoderFactory provedor : provedores) {
+      quantidade += provedor.origens().size();
+    }
+    int capacidade = Integer.highestOneBit(Math.max(4, quantidade * 4) - 1) << 1;
+    this.chaves = new String[capacidade];
+    this.provedorPorChave = new int[capacidade];
+    this.provedores = provedores.toArray(new ProvedorDecoderFactory[0]);
+    this.fabricas = new AtomicReferenceArray<>(this.provedores.length);
+    this.mascara = capacidade - 1;
+
+    for (int p = 0; p < this.provedores.length; p++) {
+      for (String origem : this.provedores[p].origens()) {
+        String chave = origem.toLowerCase(Locale.ROOT);
+        if (!todas.add(chave)) {
+          throw new IllegalStateException("Origem registrada por mais de um provedor: " + chave);
+        }
+        inserir(chave, p);
+      }
+    }
+    this.origens = Collections.unmodifiableSet(todas);
+    this.tempoDescobertaNanos = System.nanoTime() - inicio;
+  }
+
+  private static RegistroDecoderFactory descobrir() {
+    long inicio = System.nanoTime();
+    // Laço simples em vez de stream: o primeiro lambda da JVM custa vários ms para inicializar
+    List<ProvedorDecoderFactory> provedores = new ArrayList<>();
+    for (ProvedorDecoderFactory provedor : ServiceLoader.load(ProvedorDecoderFactory.class)) {
+      provedores.add(provedor);
+    }
+    RegistroDecoderFactory registro = new RegistroDecoderFactory(provedores, inicio);
+    if (registro.tempoDescobertaNanos > LIMITE_DESCOBERTA_NANOS) {
+      Log.aviso("Descoberta de factories levou {} ms (limite {} ms)", registro.tempoDescobertaNanos / 1_000_000,
+          LIMITE_DESCOBERTA_NANOS / 1_000_000);
+    }
+    return registro;
+  }
+
+  /**
+   * @return a factory registrada para a origem, ou {@code null} se não houver
+   */
+  public DecoderFactory buscar(String origem) {
+    int tamanho = origem.length();
+    int i = hash(origem) & mascara;
+    String chave;
+    while ((chave = chaves[i]) != null) {
+      if (chave.length() == tamanho && chave.regionMatches(true, 0, origem, 0, tamanho)) {
+        return fabrica(provedorPorChave[i]);
+      }
+      i = (i + 1) & mascara;
+    }
+    return null;
+  }
+
+  public Set<String> getOrigens() {
+    return origens;
+  }
+
+  public long getTempoDescobertaNanos() {
+    return tempoDescobertaNanos;
+  }
+
+  private DecoderFactory fabrica(int provedor) {
+    DecoderFactory fabrica = fabricas.get(provedor);
+    if (fabrica == null) {
+      fabrica = provedores[provedor].fabrica();
+      if (!fabricas.compareAndSet(provedor, null, fabrica)) {
+        // Outra thread criou primeiro; todas as origens do provedor ficam com a mesma factory
+        fabrica = fabricas.get(provedor);
+      }
+    }
+    return fabrica;
+  }
+
+  private void inserir(String chave, int provedor) {
+    int i = hash(chave) & mascara;
+    while (chaves[i] != null) {
+      i = (i + 1) & mascara;
+    }
+    chaves[i] = chave;
+    provedorPorChave[i] = provedor;
+  }
+
+  private static int hash(String texto) {
+    int h = 0;
+    for (int i = 0; i < texto.length(); i++) {
+      char c = texto.charAt(i);
+      if (c >= 'A' && c <= 'Z') {
+        c += 'a' - 'A';
+      } else if (c >= 0x80) {
+        c = Character.toLowerCase(c);
+      }
+      h = 31 * h + c;
+    }
+    return h ^ (h >>> 16);
+  }
+}
@@ -0,0 +1,40 @@
+package com.gof.criacional.factory;
+
+import com.gof.criacional.decoder.DecoderSemEstado;
+
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Entrega instâncias de um decoder conforme o {@link ModoReuso}.
+ *
+ * O compartilhamento é decidido pelo tipo: implementações de
+ * {@link DecoderSemEstado} têm uma única instância, as demais uma por thread.
+ * Se a instância da thread ainda estiver decodificando quando for pedida de
+ * novo, a chamada reentrante recebe uma instância nova.
+ */
+final class ReusoDecoder<T> {
+  private final Supplier<T> criador;
+  private final Predicate<T> emUso;
+  private final T compartilhado;
+  private final ThreadLocal<T> porThread;
+
+  ReusoDecoder(Class<? extends T> tipo, Supplier<? extends T> criador, Predicate<T> emUso) {
+    this.criador = criador::get;
+    this.emUso = emUso;
+    boolean semEstado = DecoderSemEstado.class.isAssignableFrom(tipo);
+    this.compartilhado = semEstado ? criador.get() : null;
+    this.porThread = semEstado ? null : ThreadLocal.withInitial(this.criador);
+  }
+
+  T obter(ModoReuso modo) {
+    if (modo == ModoReuso.NOVA_INSTANCIA) {
+      return criador.get();
+    }
+    if (compartilhado != null) {
+      return compartilhado;
+    }
+    T daThread = porThread.get();
+    return emUso.test(daThread) ? criador.get() : daThread;
+  }
+}
@@ -5,28 +5,49 @@ import com.gof.criacional.decoder.RegistrarContaDecoder;
 import com.gof.criacional.decoder.textofixo.RegistrarClienteTextoFixoDecoder;
 import com.gof.criacional.decoder.textofixo.RegistrarContaTextoFixoDecoder;
 
+import java.util.Set;
+
 public class TextoFixoDecoderFactory extends DecoderFactory {
-  private static TextoFixoDecoderFactory instance;
+  private final ReusoDecoder<RegistrarClienteDecoder> clienteDecoders =
+      new ReusoDecoder<>(RegistrarClienteTextoFixoDecoder.class, RegistrarClienteTextoFixoDecoder::new,
+          RegistrarClienteDecoder::isEmUso);
+  private final ReusoDecoder<RegistrarContaDecoder> contaDecoders =
+      new ReusoDecoder<>(RegistrarContaTextoFixoDecoder.class, RegistrarContaTextoFixoDecoder::new,
+          RegistrarContaDecoder::isEmUso);
 
   private TextoFixoDecoderFactory() {
     // Construtor privado para Singleton
   }
 
-  public static synchronized TextoFixoDecoderFactory getInstance() {
-    if (instance == null) {
-      instance = new TextoFixoDecoderFactory();
-    }
-    return instance;
+  // Holder idiom: lazy e thread-safe sem sincronização em cada chamada
+  private static class InstanceHolder {
+    private static final TextoFixoDecoderFactory INSTANCE = new TextoFixoDecoderFactory();
+  }
+
+  public static TextoFixoDecoderFactory getInstance() {
+    return InstanceHolder.INSTANCE;
   }
 
   @Override
   public RegistrarClienteDecoder createRegistrarClienteDecoder() {
-    return new RegistrarClienteTextoFixoDecoder();
+    return clienteDecoders.obter(getModoReuso());
   }
 
   @Override
   public RegistrarContaDecoder createRegistrarContaDecoder() {
-    return new RegistrarContaTextoFixoDecoder();
+    return contaDecoders.obter(getModoReuso());
   }
 
+  // Publicado em META-INF/services para o RegistroDecoderFactory
+  public static class Provedor implements ProvedorDecoderFactory {
+    @Override
+    public Set<String> origens() {
+      return Set.of("fixo");
+    }
+
+    @Override
+    public DecoderFactory fabrica() {
+      return getInstance();
+    }
+  }
 }
@@ -5,28 +5,73 @@ import com.gof.criacional.decoder.RegistrarContaDecoder;
 import com.gof.criacional.decoder.xml.RegistrarClienteXMLDecoder;
 import com.gof.criacional.decoder.xml.RegistrarContaXMLDecoder;
 
+import javax.xml.stream.XMLInputFactory;
+import java.util.Set;
+
 public class XMLDecoderFactory extends DecoderFactory {
-  private static XMLDecoderFactory instance;
+  private final ReusoDecoder<RegistrarClienteDecoder> clienteDecoders =
+      new ReusoDecoder<>(RegistrarClienteXMLDecoder.class, RegistrarClienteXMLDecoder::new,
+          RegistrarClienteDecoder::isEmUso);
+  private final ReusoDecoder<RegistrarContaDecoder> contaDecoders =
+      new ReusoDecoder<>(RegistrarContaXMLDecoder.class, RegistrarContaXMLDecoder::new,
+          RegistrarContaDecoder::isEmUso);
 
   private XMLDecoderFactory() {
     // Construtor privado para Singleton
   }
 
-  public static synchronized XMLDecoderFactory getInstance() {
-    if (instance == null) {
-      instance = new XMLDecoderFactory();
+  // Holder idiom: lazy e thread-safe sem sincronização em cada chamada
+  private static class InstanceHolder {
+    private static final XMLDecoderFactory INSTANCE = new XMLDecoderFactory();
+  }
+
+  public static XMLDecoderFactory getInstance() {
+    return InstanceHolder.INSTANCE;
+  }
+
+  /**
+   * Fábrica StAX compartilhada pelos decoders XML.
+   *
+   * Criar um {@link XMLInputFactory} é caro (busca de implementação e
+   * configuração), então ele é configurado uma única vez e reaproveitado
+   * para todos os documentos. DTDs e entidades externas ficam desabilitados.
+   */
+  public static XMLInputFactory getXMLInputFactory() {
+    return XMLInputFactoryHolder.INSTANCE;
+  }
+
+  private static class XMLInputFactoryHolder {
+    private static final XMLInputFactory INSTANCE = criarXMLInputFactory();
+
+    private static XMLInputFactory criarXMLInputFactory() {
+      XMLInputFactory fabrica = XMLInputFactory.newFactory();
+      fabrica.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+      fabrica.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+      fabrica.setProperty(XMLInputFactory.IS_COALESCING, true);
+      return fabrica;
     }
-    return instance;
   }
 
   @Override
   public RegistrarClienteDecoder createRegistrarClienteDecoder() {
-    return new RegistrarClienteXMLDecoder();
+    return clienteDecoders.obter(getModoReuso());
   }
 
   @Override
   public RegistrarContaDecoder createRegistrarContaDecoder() {
-    return new RegistrarContaXMLDecoder();
+    return contaDecoders.obter(getModoReuso());
   }
 
+  // Publicado em META-INF/services para o RegistroDecoderFactory
+  public static class Provedor implements ProvedorDecoderFactory {
+    @Override
+    public Set<String> origens() {
+      return Set.of("xml");
+    }
+
+    @Override
+    public DecoderFactory fabrica() {
+      return getInstance();
+    }
+  }
 }
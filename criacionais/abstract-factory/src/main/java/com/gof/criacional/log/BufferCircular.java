@@ -0,0 +1,76 @@
+package com.gof.criacional.log;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fila circular de capacidade fixa, sem lock, para vários produtores e um
+ * único consumidor.
+ *
+ * Cada posição tem um número de sequência: o produtor reserva uma posição com
+ * CAS, grava o elemento e publica avançando a sequência; o consumidor só lê a
+ * posição quando a sequência indica que ela foi publicada.
+ */
+final class BufferCircular<E> {
+  private final Object[] elementos;
+  private final AtomicLongArray sequencias;
+  private final int mascara;
+  private final AtomicLong cauda = new AtomicLong();
+  private long cabeca;
+
+  BufferCircular(int capacidade) {
+    if (Integer.bitCount(capacidade) != 1) {
+      throw new IllegalArgumentException("Capacidade deve ser potência de dois: " + capacidade);
+    }
+    this.elementos = new Object[capacidade];
+    this.sequencias = new AtomicLongArray(capacidade);
+    this.mascara = capacidade - 1;
+    for (int i = 0; i < capacidade; i++) {
+      sequencias.set(i, i);
+    }
+  }
+
+  /**
+   * @return {@code false} se a fila estiver cheia
+   */
+  boolean oferecer(E elemento) {
+    long posicao = cauda.get();
+    while (true) {
+      int i = (int) posicao & mascara;
+      long diferenca = sequencias.getAcquire(i) - posicao;
+      if (diferenca == 0) {
+        if (cauda.compareAndSet(posicao, posicao + 1)) {
+          elementos[i] = elemento;
+          sequencias.setRelease(i, posicao + 1);
+          return true;
+        }
+        posicao = cauda.get();
+      } else if (diferenca < 0) {
+        return false;
+      } else {
+        posicao = cauda.get();
+      }
+    }
+  }
+
+  // Só o consumidor chama
+  @SuppressWarnings("unchecked")
+  E retirar() {
+    int i = (int) cabeca & mascara;
+    if (sequencias.getAcquire(i) != cabeca + 1) {
+      return null;
+    }
+    E elemento = (E) elementos[i];
+    elementos[i] = null;
+    sequencias.setRelease(i, cabeca + elementos.length);
+    cabeca++;
+    return elemento;
+  }
+
+  /**
+   * Quantidade de elementos já reservados pelos produtores desde a criação.
+   */
+  long publicados() {
+    return cauda.get();
+  }
+}
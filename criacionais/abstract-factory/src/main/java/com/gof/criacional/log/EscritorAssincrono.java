@@ -0,0 +1,132 @@
+package com.gof.criacional.log;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Escreve as mensagens do {@link Log} em uma thread de fundo.
+ *
+ * Quem registra não formata nada: coloca o evento em um {@link BufferCircular} e
+ * volta. A thread de escrita monta o texto, junta os eventos disponíveis em uma
+ * única escrita e dorme quando o buffer esvazia. Com o buffer cheio, o evento é
+ * descartado e contado, em vez de bloquear a decodificação.
+ */
+final class EscritorAssincrono {
+  static final int CAPACIDADE = 8192;
+  private static final int MAXIMO_POR_ESCRITA = 512;
+
+  private final BufferCircular<Evento> buffer = new BufferCircular<>(CAPACIDADE);
+  private final LongAdder descartados = new LongAdder();
+  private final Thread escritor;
+  private volatile PrintStream destino;
+  private volatile boolean dormindo;
+  private volatile long escritos;
+  private long descartadosInformados;
+
+  record Evento(NivelLog nivel, String modelo, Object primeiro, Object segundo) {
+  }
+
+  EscritorAssincrono() {
+    this.escritor = Thread.ofPlatform().daemon().name("log-assincrono").unstarted(this::escrever);
+    this.escritor.start();
+    Runtime.getRuntime().addShutdownHook(Thread.ofPlatform().unstarted(this::esvaziar));
+  }
+
+  void publicar(Evento evento) {
+    if (!buffer.oferecer(evento)) {
+      descartados.increment();
+      return;
+    }
+    if (dormindo) {
+      LockSupport.unpark(escritor);
+    }
+  }
+
+  // null volta para o System.out do momento da escrita
+  void setDestino(PrintStream destino) {
+    this.destino = destino;
+  }
+
+  long getDescartados() {
+    return descartados.sum();
+  }
+
+  /**
+   * Aguarda até que tudo o que foi publicado antes da chamada esteja escrito.
+   */
+  void esvaziar() {
+    long alvo = buffer.publicados();
+    while (escritos < alvo && escritor.isAlive()) {
+      LockSupport.unpark(escritor);
+      LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+    }
+  }
+
+  // Roda na thread de fundo
+  private void escrever() {
+    StringBuilder texto = new StringBuilder(16 * 1024);
+    long total = 0;
+    while (true) {
+      int lidos = 0;
+      Evento evento;
+      while (lidos < MAXIMO_POR_ESCRITA && (evento = buffer.retirar()) != null) {
+        formatar(evento, texto);
+        lidos++;
+      }
+      if (lidos > 0) {
+        informarDescartados(texto);
+        PrintStream saida = destino != null ? destino : System.out;
+        saida.print(texto);
+        saida.flush();
+        texto.setLength(0);
+        total += lidos;
+        escritos = total;
+        continue;
+      }
+      dormindo = true;
+      // Confere de novo: um produtor pode ter publicado antes de ver dormindo = true
+      if (buffer.publicados() == total) {
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100));
+      }
+      dormindo = false;
+    }
+  }
+
+  private void informarDescartados(StringBuilder texto) {
+    long total = descartados.sum();
+    if (total > descartadosInformados) {
+      texto.append("⚠️ ").append(total - descartadosInformados)
+          .append(" mensagem(ns) de log descartada(s): buffer cheio").append(System.lineSeparator());
+      descartadosInformados = total;
+    }
+  }
+
+  private static void formatar(Evento evento, StringBuilder texto) {
+    String modelo = evento.modelo();
+    int inicio = texto.length();
+    try {
+      int primeiro = modelo.indexOf("{}");
+      if (primeiro < 0) {
+        texto.append(modelo);
+      } else {
+        texto.append(modelo, 0, primeiro).append(evento.primeiro());
+        int segundo = modelo.indexOf("{}", primeiro + 2);
+        if (segundo < 0) {
+          texto.append(modelo, primeiro + 2, modelo.length());
+        } else {
+          texto.append(modelo, primeiro + 2, segundo).append(evento.segundo()).append(modelo, segundo + 2, modelo.length());
+        }
+      }
+    } catch (RuntimeException e) {
+      // toString() de um argumento falhou; a mensagem não derruba a thread de escrita
+      texto.setLength(inicio);
+      texto.append(modelo).append(" [falha ao formatar: ").append(e).append(']');
+    }
+    if (evento.nivel() == NivelLog.AVISO || evento.nivel() == NivelLog.ERRO) {
+      texto.insert(inicio, evento.nivel() + " ");
+    }
+    texto.append(System.lineSeparator());
+  }
+}
@@ -0,0 +1,155 @@
+package com.gof.criacional.log;
+
+import com.gof.criacional.log.EscritorAssincrono.Evento;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Log assíncrono com nível global.
+ *
+ * Um nível desligado custa só a leitura de um campo volátil: os argumentos são
+ * passados à parte do modelo ({@code "Cliente {} lido"}) e só viram texto se a
+ * mensagem for escrita, sem concatenação nem varargs. Mensagens habilitadas vão
+ * para um buffer circular sem lock e são formatadas e escritas por uma thread de
+ * fundo (ver {@link EscritorAssincrono}), então quem registra não espera pelo
+ * console.
+ *
+ * Como a formatação acontece depois, os argumentos precisam ser imutáveis
+ * (records, Strings, números). O nível inicial vem da propriedade
+ * {@code com.gof.criacional.log.nivel} e é {@link NivelLog#INFO} por padrão
+ * ou quando o valor não é um nível conhecido.
+ */
+public final class Log {
+  private static final String PROPRIEDADE_NIVEL = "com.gof.criacional.log.nivel";
+
+  private static volatile NivelLog nivel = nivelInicial(System.getProperty(PROPRIEDADE_NIVEL));
+
+  private Log() {
+  }
+
+  // A thread de escrita só é criada na primeira mensagem habilitada
+  private static class EscritorHolder {
+    private static final EscritorAssincrono INSTANCE = new EscritorAssincrono();
+  }
+
+  public static NivelLog getNivel() {
+    return nivel;
+  }
+
+  public static void setNivel(NivelLog nivel) {
+    Log.nivel = Objects.requireNonNull(nivel);
+  }
+
+  public static boolean isHabilitado(NivelLog nivel) {
+    return nivel != NivelLog.NENHUM && nivel.compareTo(Log.nivel) >= 0;
+  }
+
+  /**
+   * Troca o destino das mensagens; {@code null} volta para o {@code System.out}.
+   */
+  public static void setDestino(PrintStream destino) {
+    EscritorHolder.INSTANCE.setDestino(destino);
+  }
+
+  public static void depuracao(String mensagem) {
+    if (isHabilitado(NivelLog.DEPURACAO)) {
+      publicar(NivelLog.DEPURACAO, "{}", mensagem, null);
+    }
+  }
+
+  public static void depuracao(String modelo, Object argumento) {
+    if (isHabilitado(NivelLog.DEPURACAO)) {
+      publicar(NivelLog.DEPURACAO, modelo, argumento, null);
+    }
+  }
+
+  public static void depuracao(String modelo, Object primeiro, Object segundo) {
+    if (isHabilitado(NivelLog.DEPURACAO)) {
+      publicar(NivelLog.DEPURACAO, modelo, primeiro, segundo);
+    }
+  }
+
+  public static void info(String mensagem) {
+    if (isHabilitado(NivelLog.INFO)) {
+      publicar(NivelLog.INFO, "{}", mensagem, null);
+    }
+  }
+
+  public static void info(String modelo, Object argumento) {
+    if (isHabilitado(NivelLog.INFO)) {
+      publicar(NivelLog.INFO, modelo, argumento, null);
+    }
+  }
+
+  public static void info(String modelo, Object primeiro, Object segundo) {
+    if (isHabilitado(NivelLog.INFO)) {
+      publicar(NivelLog.INFO, modelo, primeiro, segundo);
+    }
+  }
+
+  public static void aviso(String mensagem) {
+    if (isHabilitado(NivelLog.AVISO)) {
+      publicar(NivelLog.AVISO, "{}", mensagem, null);
+    }
+  }
+
+  public static void aviso(String modelo, Object argumento) {
+    if (isHabilitado(NivelLog.AVISO)) {
+      publicar(NivelLog.AVISO, modelo, argumento, null);
+    }
+  }
+
+  public static void aviso(String modelo, Object primeiro, Object segundo) {
+    if (isHabilitado(NivelLog.AVISO)) {
+      publicar(NivelLog.AVISO, modelo, primeiro, segundo);
+    }
+  }
+
+  /**
+   * Para mensagens que não cabem em um modelo: o fornecedor só é chamado, na
+   * thread de quem registra, se o nível estiver habilitado.
+   */
+  public static void registrar(NivelLog nivel, Supplier<String> mensagem) {
+    if (isHabilitado(nivel)) {
+      publicar(nivel, "{}", mensagem.get(), null);
+    }
+  }
+
+  /**
+   * Aguarda a escrita de todas as mensagens registradas até aqui. Útil antes de
+   * escrever direto no console ou ao encerrar; na saída da JVM isso é feito
+   * automaticamente.
+   */
+  public static void esvaziar() {
+    EscritorHolder.INSTANCE.esvaziar();
+  }
+
+  /**
+   * Mensagens perdidas porque o buffer estava cheio.
+   */
+  public static long getDescartados() {
+    return EscritorHolder.INSTANCE.getDescartados();
+  }
+
+  private static void publicar(NivelLog nivel, String modelo, Object primeiro, Object segundo) {
+    EscritorHolder.INSTANCE.publicar(new Evento(nivel, modelo, primeiro, segundo));
+  }
+
+  // Roda na inicialização da classe: um valor inválido não pode derrubar quem só queria logar
+  private static NivelLog nivelInicial(String valor) {
+    if (valor == null || valor.isBlank()) {
+      return NivelLog.INFO;
+    }
+    try {
+      return NivelLog.valueOf(valor.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      System.err.println("Nível de log inválido em " + PROPRIEDADE_NIVEL + ": '" + valor
+          + "'; usando INFO. Valores aceitos: " + Arrays.toString(NivelLog.values()));
+      return NivelLog.INFO;
+    }
+  }
+}
@@ -0,0 +1,13 @@
+package com.gof.criacional.log;
+
+/**
+ * Níveis do {@link Log}, do mais detalhado ao mais grave.
+ */
+public enum NivelLog {
+  DEPURACAO,
+  INFO,
+  AVISO,
+  ERRO,
+  /** Desliga todas as mensagens */
+  NENHUM
+}
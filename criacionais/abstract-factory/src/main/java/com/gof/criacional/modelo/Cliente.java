@@ -0,0 +1,21 @@
+package com.gof.criacional.modelo;
+
+import java.util.Objects;
+
+/**
+ * Cliente decodificado de uma mensagem de registro, independente do formato de origem.
+ *
+ * O CPF é guardado como {@code long} e tem os dígitos verificadores conferidos na criação.
+ */
+public record Cliente(String nome, long cpf) {
+  public Cliente {
+    Objects.requireNonNull(nome, "nome");
+    if (!Cpf.isValido(cpf)) {
+      throw new IllegalArgumentException("CPF inválido: " + cpf);
+    }
+  }
+
+  public String cpfFormatado() {
+    return Cpf.formatar(cpf);
+  }
+}
@@ -0,0 +1,15 @@
+package com.gof.criacional.modelo;
+
+import java.util.Objects;
+
+/**
+ * Conta decodificada de uma mensagem de registro, independente do formato de origem.
+ */
+public record Conta(long numero, String tipo) {
+  public Conta {
+    if (numero < 0) {
+      throw new IllegalArgumentException("Número de conta negativo: " + numero);
+    }
+    Objects.requireNonNull(tipo, "tipo");
+  }
+}
@@ -0,0 +1,59 @@
+package com.gof.criacional.modelo;
+
+/**
+ * Operações sobre CPFs guardados como {@code long} (os 11 dígitos, sem máscara).
+ *
+ * {@link #isValido} e {@link #completar} não alocam: os dígitos são extraídos por
+ * divisão, sem passar por String. Só {@link #formatar} cria Strings.
+ */
+public final class Cpf {
+  public static final long MAXIMO = 99_999_999_999L;
+
+  private Cpf() {
+  }
+
+  /**
+   * Confere o intervalo e os dois dígitos verificadores. CPFs com os 11 dígitos
+   * iguais (como 111.111.111-11) são inválidos, embora passem no cálculo.
+   */
+  public static boolean isValido(long cpf) {
+    if (cpf < 0 || cpf > MAXIMO || cpf % 11_111_111_111L == 0) {
+      return false;
+    }
+    long raiz = cpf / 100;
+    return cpf == completar(raiz);
+  }
+
+  /**
+   * Acrescenta os dígitos verificadores aos 9 primeiros dígitos.
+   */
+  public static long completar(long raiz) {
+    if (raiz < 0 || raiz > 999_999_999L) {
+      throw new IllegalArgumentException("Raiz de CPF deve ter até 9 dígitos: " + raiz);
+    }
+    int primeiro = digitoVerificador(raiz, 10);
+    int segundo = digitoVerificador(raiz * 10 + primeiro, 11);
+    return raiz * 100 + primeiro * 10 + segundo;
+  }
+
+  /**
+   * CPF com máscara, por exemplo {@code 987.654.321-00}. Só para exibição.
+   */
+  public static String formatar(long cpf) {
+    String digitos = String.format("%011d", cpf);
+    return digitos.substring(0, 3) + "." + digitos.substring(3, 6) + "." + digitos.substring(6, 9) + "-" + digitos.substring(9);
+  }
+
+  // Pesos decrescentes a partir de pesoInicial, aplicados do dígito mais à esquerda
+  private static int digitoVerificador(long digitos, int pesoInicial) {
+    int soma = 0;
+    int peso = 2;
+    while (peso <= pesoInicial) {
+      soma += (int) (digitos % 10) * peso;
+      digitos /= 10;
+      peso++;
+    }
+    int resto = soma % 11;
+    return resto < 2 ? 0 : 11 - resto;
+  }
+}
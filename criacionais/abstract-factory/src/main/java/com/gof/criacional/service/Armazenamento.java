@@ -0,0 +1,17 @@
+package com.gof.criacional.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destino final dos registros decodificados, gravados em lotes pelo
+ * {@link GravadorLote}. Cada chamada deve gravar o lote inteiro em uma única
+ * operação (um INSERT em lote, uma escrita no arquivo...).
+ *
+ * Só a thread do {@link GravadorLote} chama {@link #gravarLote}, então
+ * implementações não precisam ser thread-safe.
+ */
+public interface Armazenamento<T> extends Closeable {
+  void gravarLote(List<? extends T> registros) throws IOException;
+}
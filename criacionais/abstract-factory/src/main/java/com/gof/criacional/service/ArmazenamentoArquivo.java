@@ -0,0 +1,73 @@
+package com.gof.criacional.service;
+
+import com.gof.criacional.modelo.Cliente;
+import com.gof.criacional.modelo.Conta;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Armazenamento local em arquivo só de acréscimo: cada lote vira uma única
+ * escrita no fim do arquivo, seguida de {@code fsync} quando {@code sincronizar}
+ * é verdadeiro. O custo do {@code fsync} é pago uma vez por lote, não por registro.
+ *
+ * {@link #clientes} e {@link #contas} gravam no mesmo CSV que os decoders leem,
+ * então o arquivo pode ser reprocessado por {@link ServicoIntegracao}.
+ */
+public class ArmazenamentoArquivo<T> implements Armazenamento<T> {
+  private final FileChannel canal;
+  private final Function<? super T, String> codificador;
+  private final boolean sincronizar;
+  private final StringBuilder texto = new StringBuilder();
+
+  /**
+   * @param codificador converte um registro em uma linha, sem a quebra de linha
+   */
+  public ArmazenamentoArquivo(Path arquivo, Function<? super T, String> codificador, boolean sincronizar)
+      throws IOException {
+    this.canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    this.codificador = codificador;
+    this.sincronizar = sincronizar;
+  }
+
+  public static ArmazenamentoArquivo<Cliente> clientes(Path arquivo) throws IOException {
+    return new ArmazenamentoArquivo<>(arquivo, cliente -> campoCSV(cliente.nome()) + ',' + cliente.cpf(), true);
+  }
+
+  public static ArmazenamentoArquivo<Conta> contas(Path arquivo) throws IOException {
+    return new ArmazenamentoArquivo<>(arquivo, conta -> conta.numero() + "," + campoCSV(conta.tipo()), true);
+  }
+
+  @Override
+  public void gravarLote(List<? extends T> registros) throws IOException {
+    texto.setLength(0);
+    for (T registro : registros) {
+      texto.append(codificador.apply(registro)).append('\n');
+    }
+    ByteBuffer dados = ByteBuffer.wrap(texto.toString().getBytes(StandardCharsets.UTF_8));
+    while (dados.hasRemaining()) {
+      canal.write(dados);
+    }
+    if (sincronizar) {
+      canal.force(false);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    canal.close();
+  }
+
+  private static String campoCSV(String valor) {
+    if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+      return valor;
+    }
+    return '"' + valor.replace("\"", "\"\"") + '"';
+  }
+}
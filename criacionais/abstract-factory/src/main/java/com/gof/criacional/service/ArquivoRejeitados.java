@@ -0,0 +1,58 @@
+package com.gof.criacional.service;
+
+import com.gof.criacional.decoder.RegistroBruto;
+import com.gof.criacional.decoder.TratadorFalhas;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Base64;
+
+/**
+ * Dead-letter em arquivo: grava cada registro rejeitado em uma linha
+ * {@code posicao<TAB>motivo<TAB>registro}, com os bytes originais do registro
+ * em Base64, para preservar quebras de linha, delimitadores e bytes inválidos
+ * no charset da entrada.
+ *
+ * A escrita é bufferizada e sincronizada, então a mesma instância pode receber
+ * falhas de várias threads. O arquivo é aberto em modo append.
+ */
+public class ArquivoRejeitados implements TratadorFalhas, Closeable {
+  private final BufferedWriter saida;
+  private long quantidade;
+
+  public ArquivoRejeitados(Path arquivo) throws IOException {
+    this.saida = Files.newBufferedWriter(arquivo, StandardCharsets.UTF_8,
+        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+  }
+
+  @Override
+  public synchronized void falha(long posicao, RegistroBruto bruto, RuntimeException causa) {
+    String motivo = String.valueOf(causa.getMessage()).replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+    try {
+      saida.write(Long.toString(posicao));
+      saida.write('\t');
+      saida.write(motivo);
+      saida.write('\t');
+      saida.write(Base64.getEncoder().encodeToString(bruto.bytes()));
+      saida.newLine();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    quantidade++;
+  }
+
+  public synchronized long getQuantidade() {
+    return quantidade;
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    saida.close();
+  }
+}
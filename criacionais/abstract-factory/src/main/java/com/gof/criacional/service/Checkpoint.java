@@ -0,0 +1,115 @@
+package com.gof.criacional.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Ponto de retomada de uma leitura: posição em bytes logo após o último registro
+ * confirmado, quantidade de registros até ali e o CRC32C dos últimos
+ * {@value #TAMANHO_VERIFICACAO} bytes antes da posição.
+ *
+ * O CRC permite conferir, ao retomar, que o arquivo é o mesmo do checkpoint
+ * lendo apenas alguns KB, em vez de recalcular um checksum do arquivo inteiro.
+ */
+public record Checkpoint(long posicao, long registros, long crc) {
+  static final int TAMANHO_VERIFICACAO = 4096;
+
+  public Checkpoint {
+    if (posicao < 0 || registros < 0) {
+      throw new IllegalArgumentException("Checkpoint inválido: posição " + posicao + ", registros " + registros);
+    }
+  }
+
+  /**
+   * Cria o checkpoint de {@code posicao} calculando o CRC a partir do arquivo.
+   */
+  public static Checkpoint de(FileChannel arquivo, long posicao, long registros) throws IOException {
+    return new Checkpoint(posicao, registros, crcAntesDe(arquivo, posicao));
+  }
+
+  /**
+   * @return o checkpoint gravado, ou {@code null} se o arquivo não existe
+   */
+  public static Checkpoint ler(Path arquivoCheckpoint) throws IOException {
+    String conteudo;
+    try {
+      conteudo = Files.readString(arquivoCheckpoint, StandardCharsets.US_ASCII).trim();
+    } catch (NoSuchFileException e) {
+      return null;
+    }
+    String[] partes = conteudo.split(" ");
+    if (partes.length != 3) {
+      throw new IllegalStateException("Checkpoint corrompido em " + arquivoCheckpoint + ": " + conteudo);
+    }
+    try {
+      return new Checkpoint(Long.parseLong(partes[0]), Long.parseLong(partes[1]), Long.parseLong(partes[2], 16));
+    } catch (IllegalArgumentException e) {
+      throw new IllegalStateException("Checkpoint corrompido em " + arquivoCheckpoint + ": " + conteudo, e);
+    }
+  }
+
+  /**
+   * Grava em um arquivo temporário e o move por cima do anterior, então uma queda
+   * no meio da gravação nunca deixa um checkpoint pela metade. O conteúdo vai
+   * para o disco antes da troca de nome, e a troca antes de o método retornar:
+   * sem isso, depois de uma queda de energia o novo nome podia sobreviver sem o
+   * conteúdo.
+   */
+  public void gravar(Path arquivoCheckpoint) throws IOException {
+    Path temporario = arquivoCheckpoint.resolveSibling(arquivoCheckpoint.getFileName() + ".tmp");
+    ByteBuffer conteudo = StandardCharsets.US_ASCII.encode(
+        posicao + " " + registros + " " + Long.toHexString(crc) + "\n");
+    try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING)) {
+      while (conteudo.hasRemaining()) {
+        canal.write(conteudo);
+      }
+      canal.force(true);
+    }
+    Files.move(temporario, arquivoCheckpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    sincronizarDiretorio(arquivoCheckpoint.toAbsolutePath().getParent());
+  }
+
+  /**
+   * Confere se o arquivo ainda tem, antes da posição, os mesmos bytes vistos ao gravar.
+   */
+  public boolean correspondeA(FileChannel arquivo) throws IOException {
+    return posicao <= arquivo.size() && crcAntesDe(arquivo, posicao) == crc;
+  }
+
+  // Grava a entrada do diretório com o novo nome
+  private static void sincronizarDiretorio(Path diretorio) throws IOException {
+    FileChannel canal;
+    try {
+      canal = FileChannel.open(diretorio, StandardOpenOption.READ);
+    } catch (IOException e) {
+      // Windows não abre diretórios como arquivo; lá fica só o force do conteúdo
+      return;
+    }
+    try (canal) {
+      canal.force(true);
+    }
+  }
+
+  private static long crcAntesDe(FileChannel arquivo, long posicao) throws IOException {
+    int tamanho = (int) Math.min(posicao, TAMANHO_VERIFICACAO);
+    ByteBuffer trecho = ByteBuffer.allocate(tamanho);
+    long inicio = posicao - tamanho;
+    while (trecho.hasRemaining()) {
+      if (arquivo.read(trecho, inicio + trecho.position()) < 0) {
+        break;
+      }
+    }
+    CRC32C crc = new CRC32C();
+    crc.update(trecho.flip());
+    return crc.getValue();
+  }
+}
@@ -0,0 +1,86 @@
+package com.gof.criacional.service;
+
+import com.gof.criacional.modelo.Cliente;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Estágio que repassa ao destino só a primeira ocorrência de cada CPF, para que
+ * clientes repetidos não cheguem à persistência.
+ *
+ * Vale entre arquivos e execuções enquanto o mesmo {@link IndiceCpf} for usado.
+ * É thread-safe se o destino também for.
+ *
+ * Um CPF só entra no índice depois que o cliente foi gravado; até lá ele fica em
+ * um conjunto em memória, que também barra repetições enquanto o primeiro está a
+ * caminho. Se o destino falhar, o CPF sai desse conjunto e pode chegar de novo
+ * nesta ou na próxima execução. Com um {@link Consumer} qualquer, o cliente
+ * conta como gravado quando {@code accept} retorna. Com um {@link GravadorLote},
+ * só quando o lote dele é gravado no armazenamento: um lote que falha, ou que
+ * ficou na fila quando o gravador parou, não marca nenhum CPF.
+ */
+public class DeduplicacaoClientes implements Consumer<Cliente> {
+  private final IndiceCpf indice;
+  private final Consumer<? super Cliente> destino;
+  private final boolean confirmarAoEntregar;
+  private final Set<Long> emAndamento = ConcurrentHashMap.newKeySet();
+  private final LongAdder duplicados = new LongAdder();
+
+  public DeduplicacaoClientes(IndiceCpf indice, Consumer<? super Cliente> destino) {
+    this.indice = indice;
+    this.destino = destino;
+    this.confirmarAoEntregar = true;
+  }
+
+  /**
+   * Marca os CPFs no índice só depois que o gravador grava o lote de cada cliente.
+   */
+  public DeduplicacaoClientes(IndiceCpf indice, GravadorLote<Cliente> gravador) {
+    this.indice = indice;
+    this.destino = gravador;
+    this.confirmarAoEntregar = false;
+    gravador.aoGravar(this::confirmar);
+  }
+
+  @Override
+  public void accept(Cliente cliente) {
+    long cpf = cliente.cpf();
+    // Reserva antes de consultar o índice: quem confirma marca o índice antes de liberar a reserva
+    if (!emAndamento.add(cpf)) {
+      duplicados.increment();
+      return;
+    }
+    boolean entregue = false;
+    try {
+      if (indice.contem(cpf)) {
+        duplicados.increment();
+        return;
+      }
+      destino.accept(cliente);
+      entregue = true;
+    } finally {
+      if (entregue && confirmarAoEntregar) {
+        indice.adicionar(cpf);
+      }
+      if (!entregue || confirmarAoEntregar) {
+        emAndamento.remove(cpf);
+      }
+    }
+  }
+
+  public long getDuplicados() {
+    return duplicados.sum();
+  }
+
+  // Roda na thread do gravador, depois que o lote foi gravado
+  private void confirmar(List<? extends Cliente> lote) {
+    for (Cliente cliente : lote) {
+      indice.adicionar(cliente.cpf());
+      emAndamento.remove(cliente.cpf());
+    }
+  }
+}
@@ -0,0 +1,182 @@
+package com.gof.criacional.service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Estágio de persistência depois dos decoders: acumula os registros e os grava
+ * em lotes no {@link Armazenamento}, em uma thread de fundo.
+ *
+ * Um lote é gravado quando junta {@code tamanhoLote} registros ou quando o
+ * primeiro registro do lote espera mais que {@code intervaloMaximo}, o que vier
+ * antes. Entre os decoders e a gravação fica uma fila de {@code capacidade}
+ * registros; se o armazenamento ficar para trás e a fila encher,
+ * {@link #accept} bloqueia o decoder até haver espaço (backpressure).
+ *
+ * É um {@link Consumer}, então serve de destino direto para
+ * {@link ServicoIntegracao}, {@link ProcessadorLote} e {@link IngestaoVirtual}, e
+ * pode receber registros de várias threads. Se uma gravação falhar, as chamadas
+ * seguintes a {@link #accept} e {@link #close} lançam o erro.
+ */
+public class GravadorLote<T> implements Consumer<T>, AutoCloseable {
+  private static final ThreadFactory THREADS = Thread.ofPlatform().daemon().name("gravador-lote-", 0).factory();
+  private static final long ESPERA_MAXIMA_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+  private final Armazenamento<? super T> armazenamento;
+  private final int tamanhoLote;
+  private final long intervaloNanos;
+  private final BlockingQueue<T> fila;
+  private final Thread gravador;
+  // Chamadas de accept em andamento; a thread de gravação só termina quando não há nenhuma
+  private final AtomicInteger aceitando = new AtomicInteger();
+
+  private volatile Consumer<? super List<T>> aoGravar;
+  private volatile boolean fechado;
+  private volatile IOException erro;
+  private volatile long lotes;
+  private volatile long gravados;
+
+  public GravadorLote(Armazenamento<? super T> armazenamento, int tamanhoLote, Duration intervaloMaximo, int capacidade) {
+    if (tamanhoLote <= 0) {
+      throw new IllegalArgumentException("Tamanho de lote deve ser positivo: " + tamanhoLote);
+    }
+    if (capacidade < tamanhoLote) {
+      throw new IllegalArgumentException("Capacidade (" + capacidade + ") menor que o lote (" + tamanhoLote + ")");
+    }
+    if (intervaloMaximo.isNegative() || intervaloMaximo.isZero()) {
+      throw new IllegalArgumentException("Intervalo máximo deve ser positivo: " + intervaloMaximo);
+    }
+    this.armazenamento = armazenamento;
+    this.tamanhoLote = tamanhoLote;
+    this.intervaloNanos = intervaloMaximo.toNanos();
+    this.fila = new ArrayBlockingQueue<>(capacidade);
+    this.gravador = THREADS.newThread(this::gravar);
+    this.gravador.start();
+  }
+
+  /**
+   * Enfileira o registro, bloqueando enquanto a fila estiver cheia.
+   */
+  @Override
+  public void accept(T registro) {
+    verificarErro();
+    aceitando.incrementAndGet();
+    try {
+      // Conferido depois de se anunciar: um close concorrente ou é visto aqui, ou espera este registro
+      if (fechado) {
+        throw new IllegalStateException("Gravador já fechado");
+      }
+      // Acorda de tempos em tempos para não ficar preso se a gravação falhar
+      while (!fila.offer(registro, ESPERA_MAXIMA_NANOS, TimeUnit.NANOSECONDS)) {
+        verificarErro();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new UncheckedIOException(new InterruptedIOException("Interrompido aguardando espaço no gravador"));
+    } finally {
+      aceitando.decrementAndGet();
+    }
+  }
+
+  /**
+   * Chamado na thread de gravação depois de cada lote gravado com sucesso, com
+   * os registros do lote; a lista é reaproveitada e não deve ser guardada.
+   * Registre antes de enfileirar o primeiro registro.
+   */
+  public void aoGravar(Consumer<? super List<T>> ouvinte) {
+    this.aoGravar = ouvinte;
+  }
+
+  public long getLotes() {
+    return lotes;
+  }
+
+  public long getGravados() {
+    return gravados;
+  }
+
+  /**
+   * Grava o que ainda estiver na fila, espera a thread de gravação terminar e
+   * fecha o armazenamento.
+   */
+  @Override
+  public void close() throws IOException {
+    if (!fechado) {
+      fechado = true;
+      try {
+        gravador.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrompido aguardando a gravação dos últimos lotes");
+      } finally {
+        armazenamento.close();
+      }
+    }
+    if (erro != null) {
+      throw new IOException("Falha ao gravar lote: " + erro.getMessage(), erro);
+    }
+  }
+
+  private void verificarErro() {
+    IOException falha = erro;
+    if (falha != null) {
+      throw new UncheckedIOException("Falha ao gravar lote: " + falha.getMessage(), falha);
+    }
+  }
+
+  // Roda na thread de fundo
+  private void gravar() {
+    List<T> lote = new ArrayList<>(tamanhoLote);
+    try {
+      while (!fechado || aceitando.get() > 0 || !fila.isEmpty()) {
+        T primeiro = fila.poll(ESPERA_MAXIMA_NANOS, TimeUnit.NANOSECONDS);
+        if (primeiro == null) {
+          continue;
+        }
+        lote.add(primeiro);
+        juntar(lote, System.nanoTime() + intervaloNanos);
+        armazenamento.gravarLote(lote);
+        Consumer<? super List<T>> ouvinte = aoGravar;
+        if (ouvinte != null) {
+          ouvinte.accept(lote);
+        }
+        lotes++;
+        gravados += lote.size();
+        lote.clear();
+      }
+    } catch (IOException | RuntimeException e) {
+      erro = e instanceof IOException io ? io : new IOException(e);
+      // Libera decoders bloqueados; eles verão o erro na próxima chamada
+      fila.clear();
+    } catch (InterruptedException e) {
+      erro = new InterruptedIOException("Gravação interrompida");
+    }
+  }
+
+  // Completa o lote até o tamanho ou o prazo; com o gravador fechado, grava o que houver
+  private void juntar(List<T> lote, long prazo) throws InterruptedException {
+    while (lote.size() < tamanhoLote) {
+      if (fila.drainTo(lote, tamanhoLote - lote.size()) > 0) {
+        continue;
+      }
+      long restante = prazo - System.nanoTime();
+      if (restante <= 0 || fechado) {
+        return;
+      }
+      T registro = fila.poll(Math.min(restante, ESPERA_MAXIMA_NANOS), TimeUnit.NANOSECONDS);
+      if (registro != null) {
+        lote.add(registro);
+      }
+    }
+  }
+}
@@ -0,0 +1,97 @@
+package com.gof.criacional.service;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latências em nanossegundos, no estilo do HdrHistogram.
+ *
+ * Cada potência de dois é dividida em {@value #SUBFAIXAS} faixas iguais, então um
+ * percentil fica a no máximo ~3% do valor real. As faixas são {@link LongAdder}s:
+ * threads que registram ao mesmo tempo não disputam lock nem a mesma célula.
+ * Valores acima de 2^41 ns (~36 minutos) caem na última faixa.
+ */
+public final class HistogramaLatencia {
+  static final int SUBFAIXAS = 32;
+  private static final int BITS_SUBFAIXA = 5;
+  private static final int MAIOR_EXPOENTE = 40;
+  private static final int FAIXAS = (MAIOR_EXPOENTE - BITS_SUBFAIXA + 2) * SUBFAIXAS;
+
+  private final LongAdder[] faixas = new LongAdder[FAIXAS];
+  private final LongAdder soma = new LongAdder();
+  private final LongAccumulator maximo = new LongAccumulator(Math::max, 0);
+
+  /**
+   * Resumo do histograma; todos os valores em nanossegundos.
+   */
+  public record Distribuicao(long quantidade, long media, long p50, long p90, long p99, long p999, long maximo) {
+    public static final Distribuicao VAZIA = new Distribuicao(0, 0, 0, 0, 0, 0, 0);
+  }
+
+  public HistogramaLatencia() {
+    for (int i = 0; i < FAIXAS; i++) {
+      faixas[i] = new LongAdder();
+    }
+  }
+
+  public void registrar(long nanos) {
+    long valor = Math.max(0, nanos);
+    faixas[indice(valor)].increment();
+    soma.add(valor);
+    maximo.accumulate(valor);
+  }
+
+  /**
+   * Calcula os percentis a partir das contagens atuais. Registros feitos durante o
+   * cálculo podem ou não entrar no resultado.
+   */
+  public Distribuicao distribuicao() {
+    long[] contagens = new long[FAIXAS];
+    long total = 0;
+    for (int i = 0; i < FAIXAS; i++) {
+      contagens[i] = faixas[i].sum();
+      total += contagens[i];
+    }
+    if (total == 0) {
+      return Distribuicao.VAZIA;
+    }
+    long max = maximo.get();
+    return new Distribuicao(total, soma.sum() / total, percentil(contagens, total, 0.50, max),
+        percentil(contagens, total, 0.90, max), percentil(contagens, total, 0.99, max),
+        percentil(contagens, total, 0.999, max), max);
+  }
+
+  private static long percentil(long[] contagens, long total, double fracao, long max) {
+    long posicao = Math.max(1, (long) Math.ceil(fracao * total));
+    long acumulado = 0;
+    for (int i = 0; i < contagens.length; i++) {
+      acumulado += contagens[i];
+      if (acumulado >= posicao) {
+        return Math.min(maiorValor(i), max);
+      }
+    }
+    return max;
+  }
+
+  static int indice(long valor) {
+    if (valor < SUBFAIXAS) {
+      return (int) valor;
+    }
+    int expoente = 63 - Long.numberOfLeadingZeros(valor);
+    if (expoente > MAIOR_EXPOENTE) {
+      return FAIXAS - 1;
+    }
+    int subfaixa = (int) (valor >>> (expoente - BITS_SUBFAIXA)) & (SUBFAIXAS - 1);
+    return (expoente - BITS_SUBFAIXA + 1) * SUBFAIXAS + subfaixa;
+  }
+
+  // Maior valor que cai na faixa
+  static long maiorValor(int indice) {
+    if (indice < SUBFAIXAS) {
+      return indice;
+    }
+    int deslocamento = indice / SUBFAIXAS - 1;
+    long menor = (long) (SUBFAIXAS + indice % SUBFAIXAS) << deslocamento;
+    return menor + (1L << deslocamento) - 1;
+  }
+}
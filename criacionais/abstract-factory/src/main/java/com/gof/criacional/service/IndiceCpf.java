@@ -0,0 +1,149 @@
+package com.gof.criacional.service;
+
+import com.gof.criacional.modelo.Cpf;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Conjunto de CPFs já vistos, para descartar clientes repetidos durante a ingestão.
+ *
+ * Um CPF válido é determinado pelos seus 9 primeiros dígitos (os outros dois são
+ * verificadores), então o conjunto é um mapa de bits com uma posição para cada
+ * uma das 10^9 raízes possíveis: {@value #TAMANHO_BYTES} bytes (~119 MiB) fora do
+ * heap, qualquer que seja a quantidade de CPFs, sem colisões e sem
+ * redimensionamento. Centenas de milhões de CPFs custam menos de um bit cada.
+ *
+ * {@link #emArquivo} mapeia o mapa de bits em um arquivo esparso: só as páginas
+ * tocadas ocupam disco e memória, e o conjunto sobrevive entre execuções, o que
+ * permite deduplicar entre arquivos recebidos em dias diferentes.
+ *
+ * {@link #adicionar} usa compare-and-set na palavra de 64 bits, então a mesma
+ * instância pode ser usada por várias threads sem lock.
+ *
+ * Adicione um CPF só depois que o registro dele estiver gravado no destino:
+ * as páginas alteradas de um índice em arquivo podem chegar ao disco a qualquer
+ * momento, não só em {@link #sincronizar}, e um CPF marcado cujo registro se
+ * perdeu seria descartado como repetido em todas as execuções seguintes.
+ * {@link DeduplicacaoClientes} segue essa ordem.
+ */
+public final class IndiceCpf implements Closeable {
+  private static final long RAIZES = 1_000_000_000L;
+  static final int TAMANHO_BYTES = (int) ((RAIZES + 63) / 64 * Long.BYTES);
+  private static final VarHandle PALAVRA = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+  private final ByteBuffer bits;
+  private final FileChannel canal;
+  private final LongAdder quantidade = new LongAdder();
+
+  private IndiceCpf(ByteBuffer bits, FileChannel canal) {
+    this.bits = bits;
+    this.canal = canal;
+  }
+
+  /**
+   * Conjunto em memória fora do heap, vazio.
+   */
+  public static IndiceCpf emMemoria() {
+    return new IndiceCpf(ByteBuffer.allocateDirect(TAMANHO_BYTES), null);
+  }
+
+  /**
+   * Conjunto gravado em {@code arquivo}, criado vazio se não existir. Os CPFs
+   * adicionados em execuções anteriores continuam no conjunto.
+   */
+  public static IndiceCpf emArquivo(Path arquivo) throws IOException {
+    FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.READ,
+        StandardOpenOption.WRITE);
+    try {
+      long tamanho = canal.size();
+      if (tamanho != 0 && tamanho != TAMANHO_BYTES) {
+        throw new IllegalArgumentException("Arquivo não é um índice de CPF: " + arquivo + " tem " + tamanho + " bytes");
+      }
+      MappedByteBuffer bits = canal.map(FileChannel.MapMode.READ_WRITE, 0, TAMANHO_BYTES);
+      IndiceCpf indice = new IndiceCpf(bits, canal);
+      if (tamanho != 0) {
+        indice.contarExistentes();
+      }
+      return indice;
+    } catch (IOException | RuntimeException e) {
+      canal.close();
+      throw e;
+    }
+  }
+
+  /**
+   * @return {@code true} se o CPF ainda não estava no conjunto
+   * @throws IllegalArgumentException se o CPF for inválido
+   */
+  public boolean adicionar(long cpf) {
+    long raiz = raiz(cpf);
+    int posicao = (int) (raiz >>> 6) * Long.BYTES;
+    long mascara = 1L << raiz;
+    long palavra = (long) PALAVRA.getVolatile(bits, posicao);
+    while ((palavra & mascara) == 0) {
+      long atual = (long) PALAVRA.compareAndExchange(bits, posicao, palavra, palavra | mascara);
+      if (atual == palavra) {
+        quantidade.increment();
+        return true;
+      }
+      palavra = atual;
+    }
+    return false;
+  }
+
+  public boolean contem(long cpf) {
+    long raiz = raiz(cpf);
+    long palavra = (long) PALAVRA.getVolatile(bits, (int) (raiz >>> 6) * Long.BYTES);
+    return (palavra & (1L << raiz)) != 0;
+  }
+
+  public long quantidade() {
+    return quantidade.sum();
+  }
+
+  /**
+   * Grava no disco as páginas alteradas; sem efeito no conjunto em memória.
+   */
+  public void sincronizar() {
+    if (bits instanceof MappedByteBuffer mapeado) {
+      mapeado.force();
+    }
+  }
+
+  /**
+   * Sincroniza e fecha o arquivo. O mapeamento só é liberado pelo coletor de lixo,
+   * então o índice não deve ser usado depois de fechado.
+   */
+  @Override
+  public void close() throws IOException {
+    if (canal != null) {
+      sincronizar();
+      canal.close();
+    }
+  }
+
+  private static long raiz(long cpf) {
+    if (!Cpf.isValido(cpf)) {
+      throw new IllegalArgumentException("CPF inválido: " + cpf);
+    }
+    return cpf / 100;
+  }
+
+  private void contarExistentes() {
+    long total = 0;
+    for (int posicao = 0; posicao < TAMANHO_BYTES; posicao += Long.BYTES) {
+      total += Long.bitCount((long) PALAVRA.get(bits, posicao));
+    }
+    quantidade.add(total);
+  }
+}
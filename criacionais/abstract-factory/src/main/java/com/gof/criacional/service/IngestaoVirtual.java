@@ -0,0 +1,136 @@
+package com.gof.criacional.service;
+
+import com.gof.criacional.decoder.EntradaDescompactada;
+import com.gof.criacional.decoder.TratadorFalhas;
+import com.gof.criacional.factory.DecoderFactory;
+import com.gof.criacional.modelo.Cliente;
+import com.gof.criacional.modelo.Conta;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Consumer;
+
+/**
+ * Ingestão de muitas fontes lentas (rede, arquivos compactados) em paralelo,
+ * cada uma em sua própria virtual thread.
+ *
+ * O número de fontes em andamento é limitado por {@code maxConcorrencia}. Quando
+ * o limite é atingido, {@code submeter...} bloqueia quem chama até uma fonte
+ * terminar, aplicando backpressure em vez de acumular tarefas em memória.
+ * A fonte só é aberta quando ganha uma vaga. Fontes gzip são descompactadas
+ * automaticamente (ver {@link EntradaDescompactada}), também em virtual thread e
+ * com blocos pequenos, para que cada fonte em andamento custe pouca memória.
+ *
+ * Os registros de todas as fontes vão para o mesmo destino, que precisa ser
+ * thread-safe. O mesmo vale para o {@link TratadorFalhas}, que recebe os
+ * registros inválidos de todas as fontes.
+ *
+ * Com {@link MetricasFormato}, cada fonte conta como um lote.
+ */
+public class IngestaoVirtual implements AutoCloseable {
+  // Até (2 + 2) * 32 KB de blocos por fonte compactada, contra 1,5 MB do padrão
+  private static final int TAMANHO_BLOCO_DESCOMPACTACAO = 32 * 1024;
+  private static final int BLOCOS_EM_VOO_DESCOMPACTACAO = 2;
+  private static final ThreadFactory DESCOMPACTACAO = Thread.ofVirtual().name("ingestao-descompactacao-", 0).factory();
+
+  /**
+   * Abre a entrada de uma fonte. Chamado já dentro da virtual thread.
+   */
+  @FunctionalInterface
+  public interface Fonte {
+    InputStream abrir() throws IOException;
+  }
+
+  private final DecoderFactory factory;
+  private final TratadorFalhas tratador;
+  private final MetricasFormato metricas;
+  private final Semaphore vagas;
+  private final ExecutorService executor;
+
+  public IngestaoVirtual(DecoderFactory factory, int maxConcorrencia) {
+    this(factory, maxConcorrencia, TratadorFalhas.PROPAGAR);
+  }
+
+  public IngestaoVirtual(DecoderFactory factory, int maxConcorrencia, TratadorFalhas tratador) {
+    this(factory, maxConcorrencia, tratador, null);
+  }
+
+  /**
+   * @param metricas onde registrar contadores e latências, ou {@code null} para não medir
+   */
+  public IngestaoVirtual(DecoderFactory factory, int maxConcorrencia, TratadorFalhas tratador,
+      MetricasFormato metricas) {
+    if (maxConcorrencia <= 0) {
+      throw new IllegalArgumentException("Concorrência máxima deve ser positiva: " + maxConcorrencia);
+    }
+    this.factory = factory;
+    this.tratador = metricas != null ? metricas.contando(tratador) : tratador;
+    this.metricas = metricas;
+    this.vagas = new Semaphore(maxConcorrencia);
+    this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ingestao-", 0).factory());
+  }
+
+  /**
+   * @return quantidade de registros decodificados da fonte, quando concluída
+   */
+  public Future<Long> submeterClientes(Fonte fonte, Consumer<? super Cliente> destino) throws InterruptedException {
+    return submeter(fonte, entrada -> factory.createRegistrarClienteDecoder().decode(entrada, medido(destino), tratador));
+  }
+
+  public Future<Long> submeterContas(Fonte fonte, Consumer<? super Conta> destino) throws InterruptedException {
+    return submeter(fonte, entrada -> factory.createRegistrarContaDecoder().decode(entrada, medido(destino), tratador));
+  }
+
+  public int vagasDisponiveis() {
+    return vagas.availablePermits();
+  }
+
+  /**
+   * Aguarda todas as fontes submetidas terminarem.
+   */
+  @Override
+  public void close() {
+    executor.close();
+  }
+
+  private Future<Long> submeter(Fonte fonte, Decodificacao decodificacao) throws InterruptedException {
+    vagas.acquire();
+    try {
+      return executor.submit(() -> {
+        long inicio = System.nanoTime();
+        // Fechada à parte: com um cabeçalho gzip inválido, abrir falha antes de envolvê-la
+        try (InputStream bruta = medido(fonte.abrir());
+            InputStream entrada = EntradaDescompactada.abrir(bruta, DESCOMPACTACAO,
+                TAMANHO_BLOCO_DESCOMPACTACAO, BLOCOS_EM_VOO_DESCOMPACTACAO)) {
+          return decodificacao.executar(entrada);
+        } finally {
+          vagas.release();
+          if (metricas != null) {
+            metricas.contarLote(System.nanoTime() - inicio);
+          }
+        }
+      });
+    } catch (RuntimeException e) {
+      vagas.release();
+      throw e;
+    }
+  }
+
+  private <T> Consumer<? super T> medido(Consumer<? super T> destino) {
+    return metricas != null ? metricas.cronometrar(destino) : destino;
+  }
+
+  private InputStream medido(InputStream entrada) {
+    return metricas != null ? metricas.contando(entrada) : entrada;
+  }
+
+  @FunctionalInterface
+  private interface Decodificacao {
+    long executar(InputStream entrada) throws IOException;
+  }
+}
@@ -0,0 +1,254 @@
+package com.gof.criacional.service;
+
+import com.gof.criacional.decoder.TratadorFalhas;
+import com.gof.criacional.service.HistogramaLatencia.Distribuicao;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Métricas de ingestão de um formato: registros, bytes e erros, latência por
+ * registro e por lote (um arquivo ou fluxo inteiro, ou um bloco do
+ * {@link ProcessadorLote}).
+ *
+ * Os contadores são {@link LongAdder}s e os histogramas não usam lock, então
+ * registrar custa poucos nanossegundos mesmo com muitas threads e pode ficar
+ * ligado em produção. Contadores e histogramas acumulam desde a criação; as
+ * taxas por segundo cobrem a última janela de pelo menos um segundo entre
+ * leituras (ver {@link #instantaneo()}).
+ *
+ * Instâncias são obtidas em {@link MetricasIngestao#formato(String)}.
+ */
+public final class MetricasFormato implements MetricasFormatoMBean {
+  static final long JANELA_MINIMA_NANOS = 1_000_000_000L;
+
+  private final String formato;
+  private final LongAdder registros = new LongAdder();
+  private final LongAdder bytes = new LongAdder();
+  private final LongAdder erros = new LongAdder();
+  private final HistogramaLatencia latenciaRegistro = new HistogramaLatencia();
+  private final HistogramaLatencia latenciaLote = new HistogramaLatencia();
+  private final AtomicReference<Janela> janela;
+
+  public record Instantaneo(String formato, long registros, long bytes, long erros, double registrosPorSegundo,
+      double bytesPorSegundo, Distribuicao latenciaRegistro, Distribuicao latenciaLote) {
+  }
+
+  private record Janela(long momento, long registros, long bytes, double registrosPorSegundo, double bytesPorSegundo) {
+  }
+
+  MetricasFormato(String formato) {
+    this.formato = formato;
+    this.janela = new AtomicReference<>(new Janela(System.nanoTime(), 0, 0, 0, 0));
+  }
+
+  public String getFormato() {
+    return formato;
+  }
+
+  public void contarRegistro(long nanos) {
+    registros.increment();
+    latenciaRegistro.registrar(nanos);
+  }
+
+  public void contarLote(long nanos) {
+    latenciaLote.registrar(nanos);
+  }
+
+  public void contarBytes(long quantidade) {
+    bytes.add(quantidade);
+  }
+
+  /**
+   * Conta o tamanho de uma mensagem já decodificada como ela chega em UTF-8,
+   * sem codificá-la de novo.
+   */
+  public void contarBytesUtf8(CharSequence mensagem) {
+    long quantidade = mensagem.length();
+    for (int i = 0; i < mensagem.length(); i++) {
+      char c = mensagem.charAt(i);
+      if (c < 0x80) {
+        continue;
+      }
+      if (c < 0x800) {
+        quantidade += 1;
+      } else if (!Character.isSurrogate(c)) {
+        quantidade += 2;
+      } else if (Character.isHighSurrogate(c) && i + 1 < mensagem.length()
+          && Character.isLowSurrogate(mensagem.charAt(i + 1))) {
+        // Par de surrogates: 4 bytes para 2 chars
+        quantidade += 2;
+        i++;
+      }
+    }
+    contarBytes(quantidade);
+  }
+
+  public void contarErro() {
+    erros.increment();
+  }
+
+  /**
+   * Envolve o destino de uma decodificação sequencial: cada registro conta com o
+   * tempo desde o anterior, descontado o tempo gasto no próprio destino.
+   * O destino devolvido não é thread-safe; use um por decodificação.
+   */
+  public <T> Consumer<T> cronometrar(Consumer<? super T> destino) {
+    return new Consumer<>() {
+      private long ultimo = System.nanoTime();
+
+      @Override
+      public void accept(T registro) {
+        contarRegistro(System.nanoTime() - ultimo);
+        destino.accept(registro);
+        ultimo = System.nanoTime();
+      }
+    };
+  }
+
+  /**
+   * Como {@link #cronometrar}, para um destino chamado por várias threads ao mesmo
+   * tempo: cada registro conta com o tempo desde o anterior da mesma thread.
+   */
+  public <T> Consumer<T> cronometrarConcorrente(Consumer<? super T> destino) {
+    ThreadLocal<long[]> ultimo = ThreadLocal.withInitial(() -> new long[] {System.nanoTime()});
+    return registro -> {
+      long[] anterior = ultimo.get();
+      contarRegistro(System.nanoTime() - anterior[0]);
+      destino.accept(registro);
+      anterior[0] = System.nanoTime();
+    };
+  }
+
+  public TratadorFalhas contando(TratadorFalhas tratador) {
+    return (posicao, bruto, causa) -> {
+      contarErro();
+      tratador.falha(posicao, bruto, causa);
+    };
+  }
+
+  /**
+   * Conta os bytes lidos da entrada, antes de qualquer descompactação.
+   */
+  public InputStream contando(InputStream entrada) {
+    return new EntradaContada(entrada);
+  }
+
+  /**
+   * Lê os contadores e histogramas. Se a janela atual já tem pelo menos um segundo,
+   * ela é fechada e as taxas passam a refletir esse intervalo; leituras mais
+   * frequentes (vários atributos JMX lidos em sequência, por exemplo) repetem as
+   * taxas da última janela fechada.
+   */
+  public Instantaneo instantaneo() {
+    Janela atual = janelaAtual();
+    return new Instantaneo(formato, registros.sum(), bytes.sum(), erros.sum(), atual.registrosPorSegundo(),
+        atual.bytesPorSegundo(), latenciaRegistro.distribuicao(), latenciaLote.distribuicao());
+  }
+
+  @Override
+  public long getRegistros() {
+    return registros.sum();
+  }
+
+  @Override
+  public long getBytes() {
+    return bytes.sum();
+  }
+
+  @Override
+  public long getErros() {
+    return erros.sum();
+  }
+
+  @Override
+  public double getRegistrosPorSegundo() {
+    return janelaAtual().registrosPorSegundo();
+  }
+
+  @Override
+  public double getBytesPorSegundo() {
+    return janelaAtual().bytesPorSegundo();
+  }
+
+  @Override
+  public long getLatenciaRegistroP50Nanos() {
+    return latenciaRegistro.distribuicao().p50();
+  }
+
+  @Override
+  public long getLatenciaRegistroP99Nanos() {
+    return latenciaRegistro.distribuicao().p99();
+  }
+
+  @Override
+  public long getLatenciaRegistroMaximaNanos() {
+    return latenciaRegistro.distribuicao().maximo();
+  }
+
+  @Override
+  public long getLatenciaLoteP50Nanos() {
+    return latenciaLote.distribuicao().p50();
+  }
+
+  @Override
+  public long getLatenciaLoteP99Nanos() {
+    return latenciaLote.distribuicao().p99();
+  }
+
+  @Override
+  public long getLatenciaLoteMaximaNanos() {
+    return latenciaLote.distribuicao().maximo();
+  }
+
+  private Janela janelaAtual() {
+    long agora = System.nanoTime();
+    Janela anterior = janela.get();
+    long decorrido = agora - anterior.momento();
+    if (decorrido < JANELA_MINIMA_NANOS) {
+      return anterior;
+    }
+    long totalRegistros = registros.sum();
+    long totalBytes = bytes.sum();
+    double segundos = decorrido / 1e9;
+    Janela nova = new Janela(agora, totalRegistros, totalBytes, (totalRegistros - anterior.registros()) / segundos,
+        (totalBytes - anterior.bytes()) / segundos);
+    // Se outra thread fechou a janela antes, vale a dela
+    return janela.compareAndSet(anterior, nova) ? nova : janela.get();
+  }
+
+  private final class EntradaContada extends FilterInputStream {
+    EntradaContada(InputStream entrada) {
+      super(entrada);
+    }
+
+    @Override
+    public int read() throws IOException {
+      int lido = super.read();
+      if (lido >= 0) {
+        bytes.increment();
+      }
+      return lido;
+    }
+
+    @Override
+    public int read(byte[] destino, int deslocamento, int tamanho) throws IOException {
+      int lidos = in.read(destino, deslocamento, tamanho);
+      if (lidos > 0) {
+        bytes.add(lidos);
+      }
+      return lidos;
+    }
+
+    @Override
+    public long skip(long quantidade) throws IOException {
+      long pulados = super.skip(quantidade);
+      bytes.add(pulados);
+      return pulados;
+    }
+  }
+}
@@ -0,0 +1,29 @@
+package com.gof.criacional.service;
+
+/**
+ * Atributos JMX de {@link MetricasFormato}, registrados em
+ * {@code com.gof.criacional:type=Ingestao,formato=<formato>}.
+ */
+public interface MetricasFormatoMBean {
+  long getRegistros();
+
+  long getBytes();
+
+  long getErros();
+
+  double getRegistrosPorSegundo();
+
+  double getBytesPorSegundo();
+
+  long getLatenciaRegistroP50Nanos();
+
+  long getLatenciaRegistroP99Nanos();
+
+  long getLatenciaRegistroMaximaNanos();
+
+  long getLatenciaLoteP50Nanos();
+
+  long getLatenciaLoteP99Nanos();
+
+  long getLatenciaLoteMaximaNanos();
+}
@@ -0,0 +1,91 @@
+package com.gof.criacional.service;
+
+import com.gof.criacional.service.MetricasFormato.Instantaneo;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Registro das {@link MetricasFormato} de cada formato de entrada.
+ *
+ * Cada formato é publicado no servidor JMX da plataforma como
+ * {@code com.gof.criacional:type=Ingestao,formato=<formato>} na primeira vez que
+ * é pedido, e pode ser lido pelo JConsole ou por qualquer coletor JMX.
+ * {@link #publicarACada} entrega instantâneos periódicos para quem preferir
+ * exportá-los por conta própria (log, Prometheus...).
+ */
+public final class MetricasIngestao {
+  static final String DOMINIO_JMX = "com.gof.criacional";
+
+  private final ConcurrentMap<String, MetricasFormato> formatos = new ConcurrentHashMap<>();
+
+  private MetricasIngestao() {
+  }
+
+  private static class InstanceHolder {
+    private static final MetricasIngestao INSTANCE = new MetricasIngestao();
+  }
+
+  public static MetricasIngestao getInstance() {
+    return InstanceHolder.INSTANCE;
+  }
+
+  // Uma única thread daemon para todas as publicações periódicas
+  private static class AgendadorHolder {
+    private static final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().daemon().name("metricas-ingestao").factory());
+  }
+
+  public MetricasFormato formato(String nome) {
+    MetricasFormato metricas = formatos.get(nome);
+    return metricas != null ? metricas : formatos.computeIfAbsent(nome, MetricasIngestao::criar);
+  }
+
+  /**
+   * @return instantâneo de cada formato, ordenado pelo nome do formato
+   */
+  public Map<String, Instantaneo> instantaneos() {
+    Map<String, Instantaneo> resultado = new TreeMap<>();
+    for (MetricasFormato metricas : formatos.values()) {
+      resultado.put(metricas.getFormato(), metricas.instantaneo());
+    }
+    return Collections.unmodifiableMap(resultado);
+  }
+
+  /**
+   * Entrega {@link #instantaneos()} ao destino a cada intervalo, em uma thread de
+   * fundo. Cancele o {@link ScheduledFuture} devolvido para parar; se o destino
+   * lançar uma exceção, a publicação também para.
+   */
+  public ScheduledFuture<?> publicarACada(Duration intervalo, Consumer<? super Map<String, Instantaneo>> destino) {
+    long nanos = intervalo.toNanos();
+    if (nanos <= 0) {
+      throw new IllegalArgumentException("Intervalo deve ser positivo: " + intervalo);
+    }
+    return AgendadorHolder.INSTANCE.scheduleAtFixedRate(() -> destino.accept(instantaneos()), nanos, nanos,
+        TimeUnit.NANOSECONDS);
+  }
+
+  private static MetricasFormato criar(String nome) {
+    MetricasFormato metricas = new MetricasFormato(nome);
+    try {
+      ManagementFactory.getPlatformMBeanServer().registerMBean(metricas,
+          new ObjectName(DOMINIO_JMX + ":type=Ingestao,formato=" + nome));
+    } catch (JMException e) {
+      throw new IllegalStateException("Não foi possível publicar as métricas de " + nome + " no JMX", e);
+    }
+    return metricas;
+  }
+}
@@ -0,0 +1,40 @@
+package com.gof.criacional.service;
+
+import com.gof.criacional.decoder.RegistroBruto;
+import com.gof.criacional.decoder.TratadorFalhas;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limita quantas falhas um processamento tolera antes de ser interrompido.
+ *
+ * Repassa cada falha ao tratador de destino (por exemplo um
+ * {@link ArquivoRejeitados}) e, quando a contagem passa de {@code maxFalhas},
+ * lança {@link OrcamentoErrosExcedidoException}. Pode ser compartilhado entre threads.
+ */
+public class OrcamentoErros implements TratadorFalhas {
+  private final TratadorFalhas destino;
+  private final long maxFalhas;
+  private final AtomicLong falhas = new AtomicLong();
+
+  public OrcamentoErros(TratadorFalhas destino, long maxFalhas) {
+    if (maxFalhas < 0) {
+      throw new IllegalArgumentException("Máximo de falhas não pode ser negativo: " + maxFalhas);
+    }
+    this.destino = destino;
+    this.maxFalhas = maxFalhas;
+  }
+
+  @Override
+  public void falha(long posicao, RegistroBruto bruto, RuntimeException causa) {
+    destino.falha(posicao, bruto, causa);
+    long total = falhas.incrementAndGet();
+    if (total > maxFalhas) {
+      throw new OrcamentoErrosExcedidoException(total, maxFalhas, causa);
+    }
+  }
+
+  public long getFalhas() {
+    return falhas.get();
+  }
+}
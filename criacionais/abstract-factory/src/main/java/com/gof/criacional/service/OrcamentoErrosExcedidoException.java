@@ -0,0 +1,20 @@
+package com.gof.criacional.service;
+
+/**
+ * Lançada por {@link OrcamentoErros} quando um processamento acumula mais
+ * falhas do que o permitido.
+ */
+public class OrcamentoErrosExcedidoException extends RuntimeException {
+  private static final long serialVersionUID = 1L;
+
+  private final long falhas;
+
+  public OrcamentoErrosExcedidoException(long falhas, long maxFalhas, RuntimeException ultimaFalha) {
+    super("Orçamento de erros excedido: " + falhas + " falhas (máximo " + maxFalhas + ")", ultimaFalha);
+    this.falhas = falhas;
+  }
+
+  public long getFalhas() {
+    return falhas;
+  }
+}
@@ -0,0 +1,264 @@
+package com.gof.criacional.service;
+
+import com.gof.criacional.decoder.DestinoPosicionado;
+import com.gof.criacional.decoder.DivisorArquivo;
+import com.gof.criacional.decoder.TratadorFalhas;
+import com.gof.criacional.factory.DecoderFactory;
+import com.gof.criacional.modelo.Cliente;
+import com.gof.criacional.modelo.Conta;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Consumer;
+
+/**
+ * Decodifica um único arquivo grande (CSV ou texto fixo) usando todos os núcleos.
+ *
+ * O arquivo é cortado em trechos de {@code tamanhoTrecho} bytes (ver
+ * {@link DivisorArquivo}) e cada trecho é varrido e decodificado por tarefas do
+ * pool. Não há passada prévia pelo arquivo: cada trecho acha o próprio início, e
+ * no CSV a paridade das aspas no corte chega encadeada da varredura do trecho
+ * anterior. No máximo o dobro do paralelismo do pool fica em andamento, então a
+ * memória não depende do tamanho do arquivo.
+ *
+ * Com {@code preservarOrdem = true} os registros de cada trecho são guardados e
+ * entregues ao destino trecho a trecho, na ordem do arquivo, pela thread
+ * chamadora. Com {@code false} cada tarefa entrega direto ao destino, que precisa
+ * ser thread-safe. Em ambos os casos o {@link TratadorFalhas} é chamado pelas
+ * tarefas, com a posição em bytes no arquivo, e precisa ser thread-safe.
+ *
+ * Quando um trecho falha, os outros param antes do próximo registro, e o método
+ * só retorna (ou lança a primeira falha) depois que nenhuma tarefa pode mais
+ * chamar o destino. Sem um pool informado, cada chamada usa um pool próprio de
+ * threads de plataforma, já que as tarefas fazem I/O bloqueante e o destino
+ * pode bloquear (um {@link GravadorLote} cheio, por exemplo); assim elas não
+ * ocupam o {@link ForkJoinPool#commonPool()}.
+ */
+public class ProcessadorArquivoParalelo {
+  public static final long TAMANHO_TRECHO_PADRAO = 8L * 1024 * 1024;
+
+  private final DecoderFactory factory;
+  private final ExecutorService pool;
+  private final long tamanhoTrecho;
+  private final TratadorFalhas tratador;
+
+  public ProcessadorArquivoParalelo(DecoderFactory factory) {
+    this(factory, TratadorFalhas.PROPAGAR);
+  }
+
+  public ProcessadorArquivoParalelo(DecoderFactory factory, TratadorFalhas tratador) {
+    this(factory, null, TAMANHO_TRECHO_PADRAO, tratador);
+  }
+
+  /**
+   * @param pool onde varrer e decodificar os trechos; {@code null} cria um pool
+   *             dedicado, com uma thread por processador, a cada chamada
+   */
+  public ProcessadorArquivoParalelo(DecoderFactory factory, ExecutorService pool, long tamanhoTrecho, TratadorFalhas tratador) {
+    if (tamanhoTrecho <= 0) {
+      throw new IllegalArgumentException("Tamanho de trecho deve ser positivo: " + tamanhoTrecho);
+    }
+    this.factory = factory;
+    this.pool = pool;
+    this.tamanhoTrecho = tamanhoTrecho;
+    this.tratador = tratador;
+  }
+
+  /**
+   * @return quantidade de registros decodificados com sucesso
+   * @throws UnsupportedOperationException se o formato não permite dividir o arquivo (XML)
+   */
+  public long processarClientes(Path arquivo, Consumer<? super Cliente> destino, boolean preservarOrdem)
+      throws IOException {
+    DivisorArquivo divisor = factory.createRegistrarClienteDecoder().dividirArquivo(arquivo, tamanhoTrecho);
+    return processar(divisor, destino, preservarOrdem, (inicio, fim, aceitar, falhas) ->
+        factory.createRegistrarClienteDecoder().decodeTrecho(arquivo, inicio, fim, aceitar, falhas));
+  }
+
+  public long processarContas(Path arquivo, Consumer<? super Conta> destino, boolean preservarOrdem)
+      throws IOException {
+    DivisorArquivo divisor = factory.createRegistrarContaDecoder().dividirArquivo(arquivo, tamanhoTrecho);
+    return processar(divisor, destino, preservarOrdem, (inicio, fim, aceitar, falhas) ->
+        factory.createRegistrarContaDecoder().decodeTrecho(arquivo, inicio, fim, aceitar, falhas));
+  }
+
+  private <T> long processar(DivisorArquivo divisor, Consumer<? super T> destino, boolean preservarOrdem,
+      DecodificacaoTrecho<T> decodificacao) throws IOException {
+    ExecutorService executor = pool != null ? pool : Executors.newFixedThreadPool(
+        Runtime.getRuntime().availableProcessors(),
+        Thread.ofPlatform().name("arquivo-paralelo-", 0).daemon().factory());
+    Cancelamento cancelamento = new Cancelamento();
+    int emAndamento = Math.max(2, paralelismo(executor) * 2);
+    Deque<CompletableFuture<Trecho<T>>> pendentes = new ArrayDeque<>();
+    CompletableFuture<Boolean> dentroDeAspas = CompletableFuture.completedFuture(false);
+    int proxima = 0;
+    long total = 0;
+    boolean concluido = false;
+    try {
+      while (proxima < divisor.partes() || !pendentes.isEmpty()) {
+        while (proxima < divisor.partes() && pendentes.size() < emAndamento) {
+          int parte = proxima++;
+          CompletableFuture<DivisorArquivo.Varredura> varredura =
+              CompletableFuture.supplyAsync(() -> varrer(divisor, parte, cancelamento), executor);
+          pendentes.add(varredura.thenCombineAsync(dentroDeAspas, (resultado, aspas) -> decodificar(decodificacao,
+              divisor.inicio(parte, resultado, aspas), divisor.fim(parte), destino, preservarOrdem, cancelamento), executor));
+          dentroDeAspas = dentroDeAspas.thenCombine(varredura, (aspas, resultado) -> aspas ^ resultado.aspasImpares());
+        }
+        Trecho<T> trecho = aguardar(pendentes.poll(), cancelamento);
+        if (trecho.registros() != null) {
+          trecho.registros().forEach(destino);
+        }
+        total += trecho.quantidade();
+      }
+      concluido = true;
+      return total;
+    } finally {
+      if (!concluido) {
+        // Os trechos restantes param no próximo registro; espera para não chamarem o destino depois daqui
+        cancelamento.cancelar(null);
+        for (CompletableFuture<Trecho<T>> pendente : pendentes) {
+          pendente.handle((trecho, falha) -> null).join();
+        }
+      }
+      if (executor != pool) {
+        executor.shutdown();
+      }
+    }
+  }
+
+  private DivisorArquivo.Varredura varrer(DivisorArquivo divisor, int parte, Cancelamento cancelamento) {
+    cancelamento.verificar();
+    try {
+      return divisor.varrer(parte);
+    } catch (IOException e) {
+      throw cancelamento.cancelar(new UncheckedIOException(e));
+    } catch (RuntimeException | Error e) {
+      cancelamento.cancelar(e);
+      throw e;
+    }
+  }
+
+  private <T> Trecho<T> decodificar(DecodificacaoTrecho<T> decodificacao, long inicio, long fim,
+      Consumer<? super T> destino, boolean preservarOrdem, Cancelamento cancelamento) {
+    cancelamento.verificar();
+    if (inicio >= fim) {
+      return new Trecho<>(preservarOrdem ? List.of() : null, 0);
+    }
+    TratadorFalhas falhas = (posicao, bruto, causa) -> {
+      cancelamento.verificar();
+      tratador.falha(posicao, bruto, causa);
+    };
+    try {
+      if (!preservarOrdem) {
+        return new Trecho<>(null, decodificacao.executar(inicio, fim, (registro, posicaoFim) -> {
+          cancelamento.verificar();
+          destino.accept(registro);
+        }, falhas));
+      }
+      List<T> registros = new ArrayList<>();
+      long quantidade = decodificacao.executar(inicio, fim, (registro, posicaoFim) -> {
+        cancelamento.verificar();
+        registros.add(registro);
+      }, falhas);
+      return new Trecho<>(registros, quantidade);
+    } catch (TrechoCancelado e) {
+      throw e;
+    } catch (IOException e) {
+      throw cancelamento.cancelar(new UncheckedIOException(e));
+    } catch (RuntimeException | Error e) {
+      cancelamento.cancelar(e);
+      throw e;
+    }
+  }
+
+  private static int paralelismo(ExecutorService executor) {
+    if (executor instanceof ForkJoinPool forkJoin) {
+      return forkJoin.getParallelism();
+    }
+    if (executor instanceof ThreadPoolExecutor threads) {
+      return threads.getMaximumPoolSize();
+    }
+    return Runtime.getRuntime().availableProcessors();
+  }
+
+  private static <T> Trecho<T> aguardar(CompletableFuture<Trecho<T>> pendente, Cancelamento cancelamento)
+      throws IOException {
+    try {
+      return pendente.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrompido aguardando a decodificação de um trecho");
+    } catch (ExecutionException e) {
+      Throwable causa = e.getCause() instanceof TrechoCancelado ? cancelamento.primeiraFalha() : e.getCause();
+      if (causa instanceof IOException io) {
+        throw io;
+      }
+      if (causa instanceof UncheckedIOException io) {
+        throw io.getCause();
+      }
+      if (causa instanceof RuntimeException runtime) {
+        throw runtime;
+      }
+      if (causa instanceof Error error) {
+        throw error;
+      }
+      throw new IllegalStateException(causa);
+    }
+  }
+
+  /**
+   * Sinal compartilhado pelas tarefas de uma chamada: {@code Future.cancel} não
+   * interrompe uma tarefa que já está decodificando.
+   */
+  private static final class Cancelamento {
+    private volatile boolean cancelado;
+    private volatile Throwable primeiraFalha;
+
+    void verificar() {
+      if (cancelado) {
+        throw new TrechoCancelado();
+      }
+    }
+
+    synchronized <E extends Throwable> E cancelar(E falha) {
+      if (primeiraFalha == null && falha != null) {
+        primeiraFalha = falha;
+      }
+      cancelado = true;
+      return falha;
+    }
+
+    Throwable primeiraFalha() {
+      return primeiraFalha != null ? primeiraFalha : new IllegalStateException("Decodificação cancelada");
+    }
+  }
+
+  private static final class TrechoCancelado extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    TrechoCancelado() {
+      super(null, null, false, false);
+    }
+  }
+
+  // registros é null quando a entrega foi direto ao destino
+  private record Trecho<T>(List<T> registros, long quantidade) {
+  }
+
+  @FunctionalInterface
+  private interface DecodificacaoTrecho<T> {
+    long executar(long inicio, long fim, DestinoPosicionado<T> destino, TratadorFalhas tratador) throws IOException;
+  }
+}
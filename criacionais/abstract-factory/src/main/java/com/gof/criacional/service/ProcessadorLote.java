@@ -0,0 +1,205 @@
+package com.gof.criacional.service;
+
+import com.gof.criacional.decoder.RegistroBruto;
+import com.gof.criacional.decoder.TratadorFalhas;
+import com.gof.criacional.factory.DecoderFactory;
+import com.gof.criacional.modelo.Cliente;
+import com.gof.criacional.modelo.Conta;
+
+import java.util.Iterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Decodifica grandes volumes de mensagens em paralelo com um {@link ForkJoinPool}.
+ *
+ * As mensagens são lidas da origem em blocos de {@code tamanhoBloco}. Cada bloco é
+ * dividido recursivamente entre as threads do pool (work-stealing), enquanto a
+ * thread chamadora já lê o bloco seguinte.
+ *
+ * Com {@code preservarOrdem = true} os registros chegam ao destino na mesma ordem
+ * das mensagens, sempre pela thread chamadora. Com {@code false} cada registro é
+ * entregue assim que decodificado, por qualquer thread do pool; nesse caso o
+ * destino precisa ser thread-safe.
+ *
+ * Mensagens que falham na decodificação vão para o {@link TratadorFalhas}, com o
+ * índice da mensagem no lote como posição, e o lote continua. O tratador é chamado
+ * pelas threads do pool e também precisa ser thread-safe.
+ *
+ * Com {@link MetricasFormato}, cada mensagem conta como um registro (com o
+ * tamanho em bytes em UTF-8) e cada bloco como um lote.
+ */
+public class ProcessadorLote {
+  private static final int TAMANHO_BLOCO_PADRAO = 8192;
+  private static final int LIMITE_SEQUENCIAL = 256;
+
+  private final DecoderFactory factory;
+  private final ForkJoinPool pool;
+  private final int tamanhoBloco;
+  private final TratadorFalhas tratador;
+  private final MetricasFormato metricas;
+
+  public ProcessadorLote(DecoderFactory factory) {
+    this(factory, TratadorFalhas.PROPAGAR);
+  }
+
+  public ProcessadorLote(DecoderFactory factory, TratadorFalhas tratador) {
+    this(factory, tratador, null);
+  }
+
+  public ProcessadorLote(DecoderFactory factory, TratadorFalhas tratador, MetricasFormato metricas) {
+    this(factory, ForkJoinPool.commonPool(), TAMANHO_BLOCO_PADRAO, tratador, metricas);
+  }
+
+  public ProcessadorLote(DecoderFactory factory, ForkJoinPool pool, int tamanhoBloco) {
+    this(factory, pool, tamanhoBloco, TratadorFalhas.PROPAGAR);
+  }
+
+  public ProcessadorLote(DecoderFactory factory, ForkJoinPool pool, int tamanhoBloco, TratadorFalhas tratador) {
+    this(factory, pool, tamanhoBloco, tratador, null);
+  }
+
+  /**
+   * @param metricas onde registrar contadores e latências, ou {@code null} para não medir
+   */
+  public ProcessadorLote(DecoderFactory factory, ForkJoinPool pool, int tamanhoBloco, TratadorFalhas tratador,
+      MetricasFormato metricas) {
+    if (tamanhoBloco <= 0) {
+      throw new IllegalArgumentException("Tamanho de bloco deve ser positivo: " + tamanhoBloco);
+    }
+    this.factory = factory;
+    this.pool = pool;
+    this.tamanhoBloco = tamanhoBloco;
+    this.tratador = tratador;
+    this.metricas = metricas;
+  }
+
+  /**
+   * @return quantidade de mensagens decodificadas com sucesso
+   */
+  public long processarClientes(Iterator<String> mensagens, Consumer<? super Cliente> destino, boolean preservarOrdem) {
+    return processar(mensagens, () -> factory.createRegistrarClienteDecoder()::decode, destino, preservarOrdem);
+  }
+
+  public long processarContas(Iterator<String> mensagens, Consumer<? super Conta> destino, boolean preservarOrdem) {
+    return processar(mensagens, () -> factory.createRegistrarContaDecoder()::decode, destino, preservarOrdem);
+  }
+
+  private <T> long processar(Iterator<String> mensagens, Supplier<Function<String, T>> decoders,
+      Consumer<? super T> destino, boolean preservarOrdem) {
+    long total = 0;
+    long indiceBloco = 0;
+    LongAdder falhas = new LongAdder();
+    String[] bloco = lerBloco(mensagens);
+    while (bloco.length > 0) {
+      Object[] resultados = preservarOrdem ? new Object[bloco.length] : null;
+      falhas.reset();
+      long inicio = System.nanoTime();
+      ForkJoinTask<Void> tarefa = pool.submit(new DecodificarBloco<>(new Lote<>(bloco, indiceBloco, resultados,
+          decoders, destino, tratador, falhas, metricas), 0, bloco.length));
+
+      // Lê o próximo bloco enquanto o atual é decodificado
+      String[] proximo = lerBloco(mensagens);
+      tarefa.join();
+      if (metricas != null) {
+        metricas.contarLote(System.nanoTime() - inicio);
+      }
+
+      if (resultados != null) {
+        entregarEmOrdem(resultados, destino);
+      }
+      total += bloco.length - falhas.sum();
+      indiceBloco += bloco.length;
+      bloco = proximo;
+    }
+    return total;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> void entregarEmOrdem(Object[] resultados, Consumer<? super T> destino) {
+    for (Object resultado : resultados) {
+      // null marca uma mensagem que foi para o tratador de falhas
+      if (resultado != null) {
+        destino.accept((T) resultado);
+      }
+    }
+  }
+
+  private String[] lerBloco(Iterator<String> mensagens) {
+    String[] bloco = new String[tamanhoBloco];
+    int lidas = 0;
+    while (lidas < tamanhoBloco && mensagens.hasNext()) {
+      bloco[lidas++] = mensagens.next();
+    }
+    if (lidas == tamanhoBloco) {
+      return bloco;
+    }
+    String[] parcial = new String[lidas];
+    System.arraycopy(bloco, 0, parcial, 0, lidas);
+    return parcial;
+  }
+
+  /**
+   * Dados compartilhados por todas as tarefas de um bloco.
+   */
+  private record Lote<T>(String[] mensagens, long indiceBloco, Object[] resultados,
+      Supplier<Function<String, T>> decoders, Consumer<? super T> destino,
+      TratadorFalhas tratador, LongAdder falhas, MetricasFormato metricas) {
+  }
+
+  private static final class DecodificarBloco<T> extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final transient Lote<T> lote;
+    private final int inicio;
+    private final int fim;
+
+    DecodificarBloco(Lote<T> lote, int inicio, int fim) {
+      this.lote = lote;
+      this.inicio = inicio;
+      this.fim = fim;
+    }
+
+    @Override
+    protected void compute() {
+      if (fim - inicio <= LIMITE_SEQUENCIAL) {
+        // Decoders podem guardar estado (buffers), então cada folha usa o seu
+        Function<String, T> decoder = lote.decoders().get();
+        String[] mensagens = lote.mensagens();
+        Object[] resultados = lote.resultados();
+        MetricasFormato metricas = lote.metricas();
+        for (int i = inicio; i < fim; i++) {
+          T registro;
+          long inicioRegistro = metricas != null ? System.nanoTime() : 0;
+          try {
+            registro = decoder.apply(mensagens[i]);
+          } catch (RuntimeException e) {
+            lote.falhas().increment();
+            if (metricas != null) {
+              metricas.contarErro();
+            }
+            lote.tratador().falha(lote.indiceBloco() + i, RegistroBruto.deTexto(mensagens[i]), e);
+            continue;
+          }
+          if (metricas != null) {
+            metricas.contarRegistro(System.nanoTime() - inicioRegistro);
+            metricas.contarBytesUtf8(mensagens[i]);
+          }
+          if (resultados != null) {
+            resultados[i] = registro;
+          } else {
+            lote.destino().accept(registro);
+          }
+        }
+        return;
+      }
+      int meio = (inicio + fim) >>> 1;
+      invokeAll(new DecodificarBloco<>(lote, inicio, meio), new DecodificarBloco<>(lote, meio, fim));
+    }
+  }
+}
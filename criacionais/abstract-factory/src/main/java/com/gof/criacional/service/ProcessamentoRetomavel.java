@@ -0,0 +1,146 @@
+package com.gof.criacional.service;
+
+import com.gof.criacional.decoder.TratadorFalhas;
+import com.gof.criacional.factory.DecoderFactory;
+import com.gof.criacional.modelo.Cliente;
+import com.gof.criacional.modelo.Conta;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * Processa um arquivo grande gravando um {@link Checkpoint} a cada
+ * {@code intervaloRegistros} registros entregues ao destino. Se o processo cair,
+ * a próxima execução com o mesmo arquivo de checkpoint continua do último
+ * checkpoint em vez de voltar ao byte zero.
+ *
+ * A entrega é pelo menos uma vez: registros posteriores ao último checkpoint são
+ * entregues de novo na retomada, e os rejeitados nesse trecho voltam ao
+ * {@link TratadorFalhas}. Ao terminar, o checkpoint aponta para o fim do arquivo,
+ * mesmo que os últimos registros tenham sido rejeitados, então repetir a execução
+ * não entrega nem rejeita nada.
+ *
+ * Suportado para CSV e texto fixo, cujos decoders expõem posições em bytes.
+ */
+public class ProcessamentoRetomavel {
+  public static final long INTERVALO_PADRAO = 100_000;
+
+  private final DecoderFactory factory;
+  private final Path arquivoCheckpoint;
+  private final long intervaloRegistros;
+  private final TratadorFalhas tratador;
+  private final MetricasFormato metricas;
+
+  public ProcessamentoRetomavel(DecoderFactory factory, Path arquivoCheckpoint) {
+    this(factory, arquivoCheckpoint, INTERVALO_PADRAO, TratadorFalhas.PROPAGAR);
+  }
+
+  public ProcessamentoRetomavel(DecoderFactory factory, Path arquivoCheckpoint, long intervaloRegistros,
+      TratadorFalhas tratador) {
+    this(factory, arquivoCheckpoint, intervaloRegistros, tratador, null);
+  }
+
+  /**
+   * @param metricas onde registrar contadores e latências, ou {@code null} para não medir
+   */
+  public ProcessamentoRetomavel(DecoderFactory factory, Path arquivoCheckpoint, long intervaloRegistros,
+      TratadorFalhas tratador, MetricasFormato metricas) {
+    if (intervaloRegistros <= 0) {
+      throw new IllegalArgumentException("Intervalo de checkpoint deve ser positivo: " + intervaloRegistros);
+    }
+    this.factory = factory;
+    this.arquivoCheckpoint = arquivoCheckpoint;
+    this.intervaloRegistros = intervaloRegistros;
+    this.tratador = metricas != null ? metricas.contando(tratador) : tratador;
+    this.metricas = metricas;
+  }
+
+  /**
+   * @return total de registros do arquivo já entregues, incluindo os de execuções anteriores
+   */
+  public long processarClientes(Path arquivo, Consumer<? super Cliente> destino) throws IOException {
+    return processar(arquivo, destino,
+        (inicio, confirmar) -> factory.createRegistrarClienteDecoder().decodeArquivo(arquivo, inicio, confirmar::aceitar, tratador));
+  }
+
+  public long processarContas(Path arquivo, Consumer<? super Conta> destino) throws IOException {
+    return processar(arquivo, destino,
+        (inicio, confirmar) -> factory.createRegistrarContaDecoder().decodeArquivo(arquivo, inicio, confirmar::aceitar, tratador));
+  }
+
+  private <T> long processar(Path arquivo, Consumer<? super T> destino, Leitura<T> leitura) throws IOException {
+    try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+      Checkpoint anterior = Checkpoint.ler(arquivoCheckpoint);
+      if (anterior != null && !anterior.correspondeA(canal)) {
+        throw new IllegalStateException("Checkpoint " + arquivoCheckpoint + " não corresponde ao arquivo " + arquivo);
+      }
+      long inicio = anterior == null ? 0 : anterior.posicao();
+      long registrosAnteriores = anterior == null ? 0 : anterior.registros();
+
+      long inicioLote = System.nanoTime();
+      if (metricas != null) {
+        // Só o que esta execução lê, a partir do checkpoint
+        metricas.contarBytes(canal.size() - inicio);
+        destino = metricas.cronometrar(destino);
+      }
+      Confirmacao<T> confirmacao = new Confirmacao<>(canal, destino, inicio, registrosAnteriores);
+      try {
+        leitura.executar(inicio, confirmacao);
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      } finally {
+        if (metricas != null) {
+          metricas.contarLote(System.nanoTime() - inicioLote);
+        }
+      }
+      confirmacao.concluir(canal.size());
+      return confirmacao.registros;
+    }
+  }
+
+  @FunctionalInterface
+  private interface Leitura<T> {
+    long executar(long inicio, Confirmacao<T> confirmacao) throws IOException;
+  }
+
+  private final class Confirmacao<T> {
+    private final FileChannel canal;
+    private final Consumer<? super T> destino;
+    private long posicao;
+    private long registros;
+
+    Confirmacao(FileChannel canal, Consumer<? super T> destino, long posicao, long registros) {
+      this.canal = canal;
+      this.destino = destino;
+      this.posicao = posicao;
+      this.registros = registros;
+    }
+
+    void aceitar(T registro, long posicaoFim) {
+      destino.accept(registro);
+      posicao = posicaoFim;
+      registros++;
+      if (registros % intervaloRegistros == 0) {
+        try {
+          gravar();
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }
+    }
+
+    // A leitura chegou ao fim: nada depois do último aceito precisa ser relido
+    void concluir(long fimArquivo) throws IOException {
+      posicao = fimArquivo;
+      gravar();
+    }
+
+    void gravar() throws IOException {
+      Checkpoint.de(canal, posicao, registros).gravar(arquivoCheckpoint);
+    }
+  }
+}
@@ -1,23 +1,198 @@
 package com.gof.criacional.service;
 
+import com.gof.criacional.decoder.EntradaDescompactada;
 import com.gof.criacional.decoder.RegistrarClienteDecoder;
 import com.gof.criacional.decoder.RegistrarContaDecoder;
+import com.gof.criacional.decoder.TratadorFalhas;
 import com.gof.criacional.factory.DecoderFactory;
+import com.gof.criacional.log.Log;
+import com.gof.criacional.modelo.Cliente;
+import com.gof.criacional.modelo.Conta;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 public class ServicoIntegracao {
   private DecoderFactory factory;
+  private TratadorFalhas tratadorFalhas = TratadorFalhas.PROPAGAR;
+  private final MetricasFormato metricas;
 
   public ServicoIntegracao(DecoderFactory factory) {
     this.factory = factory;
+    this.metricas = MetricasIngestao.getInstance().formato(nomeFormato(factory));
+  }
+
+  /**
+   * Métricas do formato desta factory, compartilhadas por todos os serviços do
+   * mesmo formato. Ver {@link MetricasIngestao}.
+   */
+  public MetricasFormato getMetricas() {
+    return metricas;
+  }
+
+  /**
+   * Define o destino dos registros inválidos nos processamentos em lote. O padrão,
+   * {@link TratadorFalhas#PROPAGAR}, interrompe o processamento na primeira falha.
+   */
+  public void setTratadorFalhas(TratadorFalhas tratadorFalhas) {
+    this.tratadorFalhas = tratadorFalhas;
   }
 
-  public void processar() {
+  public void processar(String dadosCliente, String dadosConta) {
     // Cria os decoders usando a factory
     RegistrarClienteDecoder clienteDecoder = factory.createRegistrarClienteDecoder();
     RegistrarContaDecoder contaDecoder = factory.createRegistrarContaDecoder();
 
     // Processa os dados
-    clienteDecoder.decode("dados do cliente...");
-    contaDecoder.decode("dados da conta...");
+    long inicio = System.nanoTime();
+    Cliente cliente = decodificar(clienteDecoder::decode, dadosCliente);
+    long meio = System.nanoTime();
+    metricas.contarRegistro(meio - inicio);
+    Conta conta = decodificar(contaDecoder::decode, dadosConta);
+    metricas.contarRegistro(System.nanoTime() - meio);
+    metricas.contarBytesUtf8(dadosCliente);
+    metricas.contarBytesUtf8(dadosConta);
+    Log.info("✅ Registrados: {} e {}", cliente, conta);
+  }
+
+  // Processa um arquivo inteiro de clientes em streaming, sem carregá-lo em memória.
+  // Entradas gzip são descompactadas em outra thread, em paralelo com a decodificação.
+  // A entrada é fechada ao final.
+  public long processarClientes(InputStream entrada, Consumer<? super Cliente> destino) throws IOException {
+    long inicio = System.nanoTime();
+    try (InputStream descompactada = EntradaDescompactada.abrir(metricas.contando(entrada))) {
+      return factory.createRegistrarClienteDecoder().decode(descompactada, metricas.cronometrar(destino),
+          metricas.contando(tratadorFalhas));
+    } finally {
+      metricas.contarLote(System.nanoTime() - inicio);
+    }
+  }
+
+  public long processarContas(InputStream entrada, Consumer<? super Conta> destino) throws IOException {
+    long inicio = System.nanoTime();
+    try (InputStream descompactada = EntradaDescompactada.abrir(metricas.contando(entrada))) {
+      return factory.createRegistrarContaDecoder().decode(descompactada, metricas.cronometrar(destino),
+          metricas.contando(tratadorFalhas));
+    } finally {
+      metricas.contarLote(System.nanoTime() - inicio);
+    }
+  }
+
+  // Arquivos de texto fixo são mapeados em memória pelo próprio decoder; arquivos
+  // compactados são lidos em streaming
+  public long processarArquivoClientes(Path arquivo, Consumer<? super Cliente> destino) throws IOException {
+    if (EntradaDescompactada.isCompactado(arquivo)) {
+      return processarClientes(Files.newInputStream(arquivo), destino);
+    }
+    long inicio = System.nanoTime();
+    metricas.contarBytes(Files.size(arquivo));
+    try {
+      return factory.createRegistrarClienteDecoder().decodeArquivo(arquivo, metricas.cronometrar(destino),
+          metricas.contando(tratadorFalhas));
+    } finally {
+      metricas.contarLote(System.nanoTime() - inicio);
+    }
+  }
+
+  public long processarArquivoContas(Path arquivo, Consumer<? super Conta> destino) throws IOException {
+    if (EntradaDescompactada.isCompactado(arquivo)) {
+      return processarContas(Files.newInputStream(arquivo), destino);
+    }
+    long inicio = System.nanoTime();
+    metricas.contarBytes(Files.size(arquivo));
+    try {
+      return factory.createRegistrarContaDecoder().decodeArquivo(arquivo, metricas.cronometrar(destino),
+          metricas.contando(tratadorFalhas));
+    } finally {
+      metricas.contarLote(System.nanoTime() - inicio);
+    }
+  }
+
+  /**
+   * Cria um processamento que grava checkpoints em {@code arquivoCheckpoint} e,
+   * após uma queda, retoma do último deles. Ver {@link ProcessamentoRetomavel}.
+   */
+  public ProcessamentoRetomavel processamentoRetomavel(Path arquivoCheckpoint) {
+    return new ProcessamentoRetomavel(factory, arquivoCheckpoint, ProcessamentoRetomavel.INTERVALO_PADRAO,
+        tratadorFalhas, metricas);
+  }
+
+  /**
+   * Decodifica um lote de mensagens em paralelo usando todos os núcleos.
+   * Ver {@link ProcessadorLote} para as garantias de ordem.
+   */
+  public long processarLoteClientes(Stream<String> mensagens, Consumer<? super Cliente> destino, boolean preservarOrdem) {
+    return new ProcessadorLote(factory, tratadorFalhas, metricas).processarClientes(mensagens.iterator(), destino, preservarOrdem);
+  }
+
+  public long processarLoteContas(Stream<String> mensagens, Consumer<? super Conta> destino, boolean preservarOrdem) {
+    return new ProcessadorLote(factory, tratadorFalhas, metricas).processarContas(mensagens.iterator(), destino, preservarOrdem);
+  }
+
+  /**
+   * Decodifica um único arquivo CSV ou de texto fixo em paralelo, dividido em
+   * trechos. Ver {@link ProcessadorArquivoParalelo}.
+   */
+  public long processarArquivoClientesEmParalelo(Path arquivo, Consumer<? super Cliente> destino, boolean preservarOrdem)
+      throws IOException {
+    long inicio = System.nanoTime();
+    metricas.contarBytes(Files.size(arquivo));
+    try {
+      return new ProcessadorArquivoParalelo(factory, metricas.contando(tratadorFalhas))
+          .processarClientes(arquivo, cronometrarParalelo(destino, preservarOrdem), preservarOrdem);
+    } finally {
+      metricas.contarLote(System.nanoTime() - inicio);
+    }
+  }
+
+  public long processarArquivoContasEmParalelo(Path arquivo, Consumer<? super Conta> destino, boolean preservarOrdem)
+      throws IOException {
+    long inicio = System.nanoTime();
+    metricas.contarBytes(Files.size(arquivo));
+    try {
+      return new ProcessadorArquivoParalelo(factory, metricas.contando(tratadorFalhas))
+          .processarContas(arquivo, cronometrarParalelo(destino, preservarOrdem), preservarOrdem);
+    } finally {
+      metricas.contarLote(System.nanoTime() - inicio);
+    }
+  }
+
+  /**
+   * Cria uma ingestão em virtual threads com no máximo {@code maxConcorrencia}
+   * fontes em andamento. Ver {@link IngestaoVirtual}.
+   */
+  public IngestaoVirtual ingestaoVirtual(int maxConcorrencia) {
+    return new IngestaoVirtual(factory, maxConcorrencia, tratadorFalhas, metricas);
+  }
+
+  // Sem ordem o destino é chamado pelas tarefas do pool, ao mesmo tempo
+  private <T> Consumer<T> cronometrarParalelo(Consumer<? super T> destino, boolean preservarOrdem) {
+    return preservarOrdem ? metricas.cronometrar(destino) : metricas.cronometrarConcorrente(destino);
+  }
+
+  private <T> T decodificar(Function<String, T> decoder, String dados) {
+    try {
+      return decoder.apply(dados);
+    } catch (RuntimeException e) {
+      metricas.contarErro();
+      throw e;
+    }
+  }
+
+  // csv, xml, textofixo... a partir do nome da classe da factory
+  private static String nomeFormato(DecoderFactory factory) {
+    String nome = factory.getClass().getSimpleName();
+    if (nome.endsWith("DecoderFactory") && nome.length() > "DecoderFactory".length()) {
+      nome = nome.substring(0, nome.length() - "DecoderFactory".length());
+    } else if (nome.isEmpty()) {
+      nome = factory.getClass().getName();
+    }
+    return nome.toLowerCase(Locale.ROOT);
   }
 }
@@ -1,9 +1,80 @@
 package com.gof.criacional;
 
+import com.gof.criacional.decoder.csv.CSVDecoderTemplate;
+import com.gof.criacional.decoder.csv.LeitorCSV;
+import com.gof.criacional.decoder.csv.ModoVarredura;
+import com.gof.criacional.decoder.csv.RegistrarClienteCSVDecoder;
+import com.gof.criacional.decoder.textofixo.LayoutTextoFixo;
+import com.gof.criacional.decoder.textofixo.LeitorTextoFixo;
+import com.gof.criacional.decoder.xml.LeitorXML;
+import com.gof.criacional.decoder.xml.XMLDecoderTemplate;
+import com.gof.criacional.decoder.EntradaDescompactada;
+import com.gof.criacional.decoder.Escala;
+import com.gof.criacional.decoder.RegistrarClienteDecoder;
+import com.gof.criacional.decoder.TratadorFalhas;
+import com.gof.criacional.factory.CSVDecoderFactory;
+import com.gof.criacional.factory.DecoderFactory;
+import com.gof.criacional.factory.DetectorOrigem;
+import com.gof.criacional.factory.ModoReuso;
+import com.gof.criacional.factory.RegistroDecoderFactory;
+import com.gof.criacional.factory.TextoFixoDecoderFactory;
+import com.gof.criacional.factory.XMLDecoderFactory;
+import com.gof.criacional.log.Log;
+import com.gof.criacional.log.NivelLog;
+import com.gof.criacional.modelo.Cliente;
+import com.gof.criacional.modelo.Conta;
+import com.gof.criacional.modelo.Cpf;
+import com.gof.criacional.service.Armazenamento;
+import com.gof.criacional.service.ArmazenamentoArquivo;
+import com.gof.criacional.service.ArquivoRejeitados;
+import com.gof.criacional.service.Checkpoint;
+import com.gof.criacional.service.DeduplicacaoClientes;
+import com.gof.criacional.service.GravadorLote;
+import com.gof.criacional.service.HistogramaLatencia;
+import com.gof.criacional.service.IndiceCpf;
+import com.gof.criacional.service.IngestaoVirtual;
+import com.gof.criacional.service.MetricasFormato;
+import com.gof.criacional.service.MetricasIngestao;
+import com.gof.criacional.service.OrcamentoErros;
+import com.gof.criacional.service.OrcamentoErrosExcedidoException;
+import com.gof.criacional.service.ProcessadorArquivoParalelo;
+import com.gof.criacional.service.ProcessadorLote;
+import com.gof.criacional.service.ProcessamentoRetomavel;
+import com.gof.criacional.service.ServicoIntegracao;
 import junit.framework.Test;
 import junit.framework.TestCase;
 import junit.framework.TestSuite;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.invoke.MethodHandle;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+import javax.management.ObjectName;
+import java.nio.charset.StandardCharsets;
+
 /**
  * Unit test for simple Main.
  */
@@ -31,4 +102,842 @@ public class MainTest
   public void testMain() {
     assertTrue(true);
   }
+
+  public void testLeitorCSVComAspasEDelimitadores() throws Exception {
+    String csv = "Maria Santos,98765432100\n\n\"Silva, \"\"Jr\"\"\",12345678900\r\n";
+    LeitorCSV leitor = new LeitorCSV(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+    assertTrue(leitor.proximoRegistro());
+    assertEquals(2, leitor.quantidadeCampos());
+    assertEquals("Maria Santos", leitor.campo(0).toString());
+
+    assertTrue(leitor.proximoRegistro());
+    assertEquals("Silva, \"Jr\"", leitor.campo(0).toString());
+    assertEquals("12345678900", leitor.campo(1).toString());
+
+    assertFalse(leitor.proximoRegistro());
+  }
+
+  public void testLeitorTextoFixoExtraiColunasDoArquivoMapeado() throws Exception {
+    Path arquivo = Files.createTempFile("clientes", ".txt");
+    try {
+      Files.writeString(arquivo, "Pedro Costa       45612378900\r\nAna               00012345678", StandardCharsets.ISO_8859_1);
+      try (LeitorTextoFixo leitor = new LeitorTextoFixo(LayoutTextoFixo.CLIENTE)) {
+        leitor.abrir(arquivo);
+
+        assertTrue(leitor.proximoRegistro());
+        assertEquals("Pedro Costa", leitor.campo(0).toString());
+        assertEquals("45612378900", leitor.campo(1).toString());
+
+        assertTrue(leitor.proximoRegistro());
+        assertEquals("Ana", leitor.campo(0).toString());
+        assertEquals(31, leitor.posicaoRegistro());
+
+        assertFalse(leitor.proximoRegistro());
+      }
+    } finally {
+      Files.delete(arquivo);
+    }
+  }
+
+  public void testLeitorXMLEntregaUmRegistroPorVez() throws Exception {
+    String xml = "<clientes>"
+        + "<cliente><nome>João Silva</nome><cpf>12345678900</cpf></cliente>"
+        + "<cliente><cpf>98765432100</cpf><extra><nome>ignorado</nome></extra><nome>Maria</nome></cliente>"
+        + "</clientes>";
+    InputStream entrada = new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+    try (LeitorXML leitor = new LeitorXML(XMLDecoderFactory.getXMLInputFactory(), entrada, "cliente", "nome", "cpf")) {
+      assertTrue(leitor.proximoRegistro());
+      assertEquals("João Silva", leitor.campo(0));
+
+      assertTrue(leitor.proximoRegistro());
+      assertEquals("Maria", leitor.campo(0));
+      assertEquals("98765432100", leitor.campo(1));
+
+      assertFalse(leitor.proximoRegistro());
+    }
+  }
+
+  public void testDecodersProduzemRegistrosTipados() {
+    Cliente cliente = new CSVDecoderTemplate().registrarCliente("Maria Santos,98765432100");
+    assertEquals(new Cliente("Maria Santos", 98765432100L), cliente);
+
+    Conta conta = new XMLDecoderTemplate().registrarConta("<conta><numero>001</numero><tipo>Conta Corrente</tipo></conta>");
+    assertEquals(new Conta(1, "Conta Corrente"), conta);
+  }
+
+  public void testProcessarArquivoEntregaCadaRegistroAoDestino() throws Exception {
+    ServicoIntegracao servico = new ServicoIntegracao(DecoderFactory.fabricaParaOrigem("csv"));
+    List<Conta> contas = new ArrayList<>();
+    String csv = "001,Conta Corrente\n002,Conta Poupança\n";
+
+    long registros = servico.processarContas(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), contas::add);
+
+    assertEquals(2, registros);
+    assertEquals(new Conta(2, "Conta Poupança"), contas.get(1));
+  }
+
+  public void testProcessadorLotePreservaOrdemQuandoSolicitado() {
+    List<String> mensagens = IntStream.range(0, 2000)
+        .mapToObj(i -> "Cliente " + i + "," + Cpf.completar(1000 + i))
+        .collect(Collectors.toList());
+    List<Cliente> clientes = new ArrayList<>();
+    ForkJoinPool pool = new ForkJoinPool(4);
+    long total;
+    try {
+      ProcessadorLote processador = new ProcessadorLote(DecoderFactory.fabricaParaOrigem("csv"), pool, 300);
+      total = processador.processarClientes(mensagens.iterator(), clientes::add, true);
+    } finally {
+      pool.shutdown();
+    }
+
+    assertEquals(2000, total);
+    for (int i = 0; i < clientes.size(); i++) {
+      assertEquals(Cpf.completar(1000 + i), clientes.get(i).cpf());
+    }
+  }
+
+  public void testIngestaoVirtualRespeitaLimiteDeConcorrencia() throws Exception {
+    ServicoIntegracao servico = new ServicoIntegracao(DecoderFactory.fabricaParaOrigem("csv"));
+    ConcurrentLinkedQueue<Cliente> clientes = new ConcurrentLinkedQueue<>();
+    AtomicInteger abertas = new AtomicInteger();
+    AtomicInteger maximoAbertas = new AtomicInteger();
+    List<Future<Long>> resultados = new ArrayList<>();
+
+    try (IngestaoVirtual ingestao = servico.ingestaoVirtual(3)) {
+      for (int i = 0; i < 20; i++) {
+        String csv = "Cliente " + i + "," + Cpf.completar(1000 + i) + "\n";
+        resultados.add(ingestao.submeterClientes(() -> {
+          maximoAbertas.accumulateAndGet(abertas.incrementAndGet(), Math::max);
+          return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public void close() {
+              abertas.decrementAndGet();
+            }
+          };
+        }, clientes::add));
+      }
+    }
+
+    for (Future<Long> resultado : resultados) {
+      assertEquals(1L, resultado.get().longValue());
+    }
+    assertEquals(20, clientes.size());
+    assertTrue(maximoAbertas.get() <= 3);
+  }
+
+  public void testFactoriesReaproveitamDecodersConformeModoReuso() throws Exception {
+    DecoderFactory csv = DecoderFactory.fabricaParaOrigem("csv");
+    DecoderFactory xml = DecoderFactory.fabricaParaOrigem("xml");
+
+    assertSame(csv.createRegistrarClienteDecoder(), csv.createRegistrarClienteDecoder());
+    RegistrarClienteDecoder[] deOutraThread = new RegistrarClienteDecoder[2];
+    Thread outra = new Thread(() -> {
+      deOutraThread[0] = csv.createRegistrarClienteDecoder();
+      deOutraThread[1] = xml.createRegistrarClienteDecoder();
+    });
+    outra.start();
+    outra.join();
+    assertNotSame(csv.createRegistrarClienteDecoder(), deOutraThread[0]);
+    assertSame(xml.createRegistrarClienteDecoder(), deOutraThread[1]);
+
+    // Destino que decodifica outra mensagem enquanto a instância da thread ainda lê a entrada
+    RegistrarClienteDecoder externo = csv.createRegistrarClienteDecoder();
+    List<String> nomes = new ArrayList<>();
+    byte[] entrada = "Ana,98765432100\nBeto,12345678909\n".getBytes(StandardCharsets.UTF_8);
+    externo.decode(new ByteArrayInputStream(entrada), cliente -> {
+      RegistrarClienteDecoder interno = csv.createRegistrarClienteDecoder();
+      assertNotSame(externo, interno);
+      nomes.add(cliente.nome() + "/" + interno.decode("Carla,52998224725").nome());
+    });
+    assertEquals(List.of("Ana/Carla", "Beto/Carla"), nomes);
+    assertSame(externo, csv.createRegistrarClienteDecoder());
+
+    csv.setModoReuso(ModoReuso.NOVA_INSTANCIA);
+    try {
+      assertNotSame(csv.createRegistrarClienteDecoder(), csv.createRegistrarClienteDecoder());
+    } finally {
+      csv.setModoReuso(ModoReuso.POR_THREAD);
+    }
+  }
+
+  public void testRegistroDescobreFactoriesEIgnoraMaiusculas() {
+    RegistroDecoderFactory registro = RegistroDecoderFactory.getInstance();
+
+    assertTrue(registro.getOrigens().containsAll(List.of("csv", "xml", "fixo")));
+    assertSame(XMLDecoderFactory.getInstance(), DecoderFactory.fabricaParaOrigem("XML"));
+    assertSame(TextoFixoDecoderFactory.getInstance(), registro.buscar("Fixo"));
+    assertNull(registro.buscar("json"));
+    assertTrue(registro.getTempoDescobertaNanos() < RegistroDecoderFactory.LIMITE_DESCOBERTA_NANOS);
+  }
+
+  public void testDetectorOrigemClassificaEPreservaEntrada() throws Exception {
+    assertEquals("xml", detectar("\uFEFF<clientes><cliente/></clientes>").origem());
+    assertEquals("csv", detectar("Maria,98765432100\n\"Silva, Jr\",12345678900\n").origem());
+    assertEquals("fixo", detectar("Pedro Costa       45612378900\nAna, Maria        00012345678\n").origem());
+
+    DetectorOrigem.Deteccao deteccao = detectar("Maria Santos,98765432100\n");
+    List<Cliente> clientes = new ArrayList<>();
+    new ServicoIntegracao(deteccao.fabrica()).processarClientes(deteccao.entrada(), clientes::add);
+    assertEquals(List.of(new Cliente("Maria Santos", 98765432100L)), clientes);
+  }
+
+  public void testFalhasVaoParaRejeitadosSemInterromperProcessamento() throws Exception {
+    Path rejeitados = Files.createTempFile("rejeitados", ".txt");
+    Path arquivo = Files.createTempFile("clientes", ".txt");
+    try {
+      Files.write(arquivo, ("Pedro Costa       45612378955\n"
+          + "Ana Souza         123ABC78900\n"
+          + "Maria Santos      98765432100\n").getBytes(StandardCharsets.ISO_8859_1));
+      ServicoIntegracao servico = new ServicoIntegracao(TextoFixoDecoderFactory.getInstance());
+      List<Cliente> clientes = new ArrayList<>();
+      try (ArquivoRejeitados dlq = new ArquivoRejeitados(rejeitados)) {
+        servico.setTratadorFalhas(dlq);
+        assertEquals(2, servico.processarArquivoClientes(arquivo, clientes::add));
+        assertEquals(1, dlq.getQuantidade());
+      }
+      assertEquals("Maria Santos", clientes.get(1).nome());
+
+      String[] linha = Files.readAllLines(rejeitados).get(0).split("\t");
+      assertEquals("30", linha[0]);
+      assertEquals("Ana Souza         123ABC78900",
+          new String(Base64.getDecoder().decode(linha[2]), StandardCharsets.UTF_8));
+    } finally {
+      Files.delete(arquivo);
+      Files.delete(rejeitados);
+    }
+
+    // Byte inválido em UTF-8 (0xE7 sozinho, um "ç" em Latin-1) volta ao arquivo de rejeitados intacto
+    rejeitados = Files.createTempFile("rejeitados", ".txt");
+    arquivo = Files.createTempFile("clientes", ".csv");
+    try {
+      byte[] invalido = {'J', 'o', (byte) 0xE7, 'o', ',', 'x', 'y', 'z'};
+      ByteArrayOutputStream csv = new ByteArrayOutputStream();
+      csv.write("Ana,98765432100\n".getBytes(StandardCharsets.UTF_8));
+      csv.write(invalido);
+      csv.write('\n');
+      Files.write(arquivo, csv.toByteArray());
+      ServicoIntegracao servico = new ServicoIntegracao(DecoderFactory.fabricaParaOrigem("csv"));
+      try (ArquivoRejeitados dlq = new ArquivoRejeitados(rejeitados)) {
+        servico.setTratadorFalhas(dlq);
+        assertEquals(1, servico.processarArquivoClientes(arquivo, cliente -> { }));
+      }
+      String[] linha = Files.readAllLines(rejeitados).get(0).split("\t");
+      assertEquals("16", linha[0]);
+      assertTrue(Arrays.equals(invalido, Base64.getDecoder().decode(linha[2])));
+    } finally {
+      Files.delete(arquivo);
+      Files.delete(rejeitados);
+    }
+
+    ConcurrentLinkedQueue<Long> posicoes = new ConcurrentLinkedQueue<>();
+    OrcamentoErros orcamento = new OrcamentoErros((posicao, bruto, causa) -> posicoes.add(posicao), 1);
+    Stream<String> mensagens = Stream.of("001,Conta Corrente", "sem-tipo", "002,Conta Poupança", "sem-tipo");
+    try {
+      new ProcessadorLote(DecoderFactory.fabricaParaOrigem("csv"), orcamento)
+          .processarContas(mensagens.iterator(), conta -> { }, true);
+      fail("Esperava estourar o orçamento de erros");
+    } catch (OrcamentoErrosExcedidoException e) {
+      assertEquals(2, e.getFalhas());
+    }
+    assertEquals(List.of(1L, 3L), new ArrayList<>(posicoes));
+  }
+
+  public void testProcessamentoRetomavelNaoRejeitaDeNovoAsUltimasLinhas() throws Exception {
+    Path arquivo = Files.createTempFile("contas", ".csv");
+    Path checkpoint = Files.createTempFile("contas", ".checkpoint");
+    Files.delete(checkpoint);
+    try {
+      Files.writeString(arquivo, "001,Conta Corrente\n002,Conta Poupança\nsem-tipo\n");
+      List<Long> rejeitadas = new ArrayList<>();
+      ProcessamentoRetomavel processamento = new ProcessamentoRetomavel(DecoderFactory.fabricaParaOrigem("csv"),
+          checkpoint, 100, (posicao, bruto, causa) -> rejeitadas.add(posicao));
+
+      assertEquals(2, processamento.processarContas(arquivo, conta -> { }));
+      assertEquals(1, rejeitadas.size());
+      assertEquals(Files.size(arquivo), Checkpoint.ler(checkpoint).posicao());
+
+      List<Conta> repeticao = new ArrayList<>();
+      assertEquals(2, processamento.processarContas(arquivo, repeticao::add));
+      assertTrue(repeticao.isEmpty());
+      assertEquals(1, rejeitadas.size());
+    } finally {
+      Files.delete(arquivo);
+      Files.deleteIfExists(checkpoint);
+    }
+  }
+
+  public void testProcessamentoRetomavelContinuaDoUltimoCheckpoint() throws Exception {
+    Path arquivo = Files.createTempFile("contas", ".csv");
+    Path checkpoint = Files.createTempFile("contas", ".checkpoint");
+    Files.delete(checkpoint);
+    try {
+      Files.writeString(arquivo, IntStream.range(0, 10)
+          .mapToObj(i -> String.format("%03d,Conta %d", i, i))
+          .collect(Collectors.joining("\n", "", "\n")));
+      ProcessamentoRetomavel processamento = new ProcessamentoRetomavel(
+          DecoderFactory.fabricaParaOrigem("csv"), checkpoint, 3, TratadorFalhas.PROPAGAR);
+
+      List<Conta> primeiraExecucao = new ArrayList<>();
+      try {
+        processamento.processarContas(arquivo, conta -> {
+          if (conta.numero() == 7) {
+            throw new IllegalStateException("queda simulada");
+          }
+          primeiraExecucao.add(conta);
+        });
+        fail("Esperava a queda simulada");
+      } catch (IllegalStateException e) {
+        assertEquals(7, primeiraExecucao.size());
+      }
+      assertEquals(6, Checkpoint.ler(checkpoint).registros());
+
+      List<Conta> retomada = new ArrayList<>();
+      assertEquals(10, processamento.processarContas(arquivo, retomada::add));
+      assertEquals(6, retomada.get(0).numero());
+      assertEquals(4, retomada.size());
+
+      Files.writeString(arquivo, "999,Outro arquivo\n");
+      try {
+        processamento.processarContas(arquivo, conta -> { });
+        fail("Esperava rejeitar checkpoint de outro arquivo");
+      } catch (IllegalStateException e) {
+        assertTrue(e.getMessage().contains("não corresponde"));
+      }
+    } finally {
+      Files.delete(arquivo);
+      Files.deleteIfExists(checkpoint);
+    }
+  }
+
+  public void testEntradaGzipDescompactadaEmPipeline() throws Exception {
+    String csv = IntStream.range(0, 50_000)
+        .mapToObj(i -> "Cliente " + i + "," + Cpf.completar(100_000_000L + i))
+        .collect(Collectors.joining("\n", "", "\n"));
+    ByteArrayOutputStream compactado = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzip = new GZIPOutputStream(compactado)) {
+      gzip.write(csv.getBytes(StandardCharsets.UTF_8));
+    }
+
+    try (InputStream entrada = EntradaDescompactada.abrir(new ByteArrayInputStream(compactado.toByteArray()))) {
+      assertTrue(entrada instanceof EntradaDescompactada);
+      assertEquals(csv, new String(entrada.readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    DetectorOrigem.Deteccao deteccao = DetectorOrigem.detectar(new ByteArrayInputStream(compactado.toByteArray()));
+    assertEquals("csv", deteccao.origem());
+    AtomicInteger clientes = new AtomicInteger();
+    new ServicoIntegracao(deteccao.fabrica()).processarClientes(deteccao.entrada(), cliente -> clientes.incrementAndGet());
+    assertEquals(50_000, clientes.get());
+
+    byte[] corrompido = Arrays.copyOf(compactado.toByteArray(), compactado.size() / 2);
+    try (InputStream entrada = EntradaDescompactada.abrir(new ByteArrayInputStream(corrompido))) {
+      entrada.readAllBytes();
+      fail("Esperava falha ao descompactar entrada truncada");
+    } catch (IOException e) {
+      assertTrue(e.getMessage().contains("descompactar"));
+    }
+  }
+
+  public void testEntradaDescompactadaUsaThreadEBlocosDeQuemAbre() throws Exception {
+    byte[] csv = IntStream.range(0, 20_000)
+        .mapToObj(i -> "Cliente " + i + "," + Cpf.completar(100_000_000L + i))
+        .collect(Collectors.joining("\n", "", "\n"))
+        .getBytes(StandardCharsets.UTF_8);
+    ByteArrayOutputStream compactado = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzip = new GZIPOutputStream(compactado)) {
+      gzip.write(csv);
+    }
+
+    List<Thread> criadas = new CopyOnWriteArrayList<>();
+    ThreadFactory virtuais = Thread.ofVirtual().factory();
+    ThreadFactory contando = tarefa -> {
+      Thread thread = virtuais.newThread(tarefa);
+      criadas.add(thread);
+      return thread;
+    };
+    try (InputStream entrada = EntradaDescompactada.abrir(new ByteArrayInputStream(compactado.toByteArray()),
+        contando, 1024, 1)) {
+      assertTrue(Arrays.equals(csv, entrada.readAllBytes()));
+    }
+    assertEquals(1, criadas.size());
+    assertTrue(criadas.get(0).isVirtual());
+  }
+
+  public record Lancamento(String descricao, int parcela, BigDecimal valor, LocalDate data) {
+  }
+
+  public void testConversorCompiladoLeTiposDiretoDosBytes() throws Throwable {
+    MethodHandle conversor = LeitorCSV.conversor(Lancamento.class, "data", "descricao", "valor", "parcela");
+    LeitorCSV leitor = new LeitorCSV(new ByteArrayInputStream(
+        "2024-05-17,\"Mercado, centro\",-1234.56,3\n20240601,Aluguel,1500,12\n".getBytes(StandardCharsets.UTF_8)));
+
+    assertTrue(leitor.proximoRegistro());
+    assertEquals(new Lancamento("Mercado, centro", 3, new BigDecimal("-1234.56"), LocalDate.of(2024, 5, 17)),
+        (Lancamento) conversor.invokeExact(leitor));
+    assertTrue(leitor.proximoRegistro());
+    assertEquals(new Lancamento("Aluguel", 12, new BigDecimal("1500"), LocalDate.of(2024, 6, 1)),
+        (Lancamento) conversor.invokeExact(leitor));
+
+    LeitorCSV invalido = new LeitorCSV(new ByteArrayInputStream("2024-13-01,x,1,1\n".getBytes(StandardCharsets.UTF_8)));
+    assertTrue(invalido.proximoRegistro());
+    try {
+      Lancamento lancamento = (Lancamento) conversor.invokeExact(invalido);
+      fail("Esperava data inválida: " + lancamento);
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getMessage().contains("Data inválida"));
+    }
+
+    try {
+      LeitorCSV.conversor(Lancamento.class, "descricao", "valor");
+      fail("Esperava coluna ausente");
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getMessage().contains("parcela") || e.getMessage().contains("data"));
+    }
+  }
+
+  public record Pagamento(long conta, @Escala(2) long valorCentavos) {
+  }
+
+  public void testCamposNumericosViramLongSemString() throws Throwable {
+    assertTrue(Cpf.isValido(98765432100L));
+    assertTrue(Cpf.isValido(12345678909L));
+    assertFalse(Cpf.isValido(12345678900L));
+    assertFalse(Cpf.isValido(11111111111L));
+    assertEquals(12345678909L, Cpf.completar(123456789));
+    assertEquals("000.123.456-01", Cpf.formatar(12345601L));
+
+    try {
+      new CSVDecoderTemplate().registrarCliente("Maria Santos,98765432101");
+      fail("Esperava CPF com dígito verificador inválido");
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getMessage().contains("CPF inválido"));
+    }
+
+    MethodHandle conversor = LeitorCSV.conversor(Pagamento.class, "conta", "valorCentavos");
+    LeitorCSV leitor = new LeitorCSV(new ByteArrayInputStream("0042,\"1234,5\"\n7,-0.07\n8,10\n9,1.001\n"
+        .getBytes(StandardCharsets.UTF_8)));
+    assertTrue(leitor.proximoRegistro());
+    assertEquals(new Pagamento(42, 123450), (Pagamento) conversor.invokeExact(leitor));
+    assertTrue(leitor.proximoRegistro());
+    assertEquals(new Pagamento(7, -7), (Pagamento) conversor.invokeExact(leitor));
+    assertTrue(leitor.proximoRegistro());
+    assertEquals(new Pagamento(8, 1000), (Pagamento) conversor.invokeExact(leitor));
+    assertTrue(leitor.proximoRegistro());
+    try {
+      Pagamento pagamento = (Pagamento) conversor.invokeExact(leitor);
+      fail("Esperava rejeitar mais casas decimais que a escala: " + pagamento);
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getMessage().contains("2 casas"));
+    }
+  }
+
+  public void testVarreduraVetorialEncontraOsMesmosCamposQueAEscalar() throws Exception {
+    StringBuilder csv = new StringBuilder();
+    for (int i = 0; i < 300; i++) {
+      String longo = "x".repeat(i % 97);
+      csv.append(longo).append(i).append(",\"aspas ").append(longo).append(" \"\"").append(i).append("\"\", fim\",")
+          .append(i % 3 == 0 ? "\r\n" : "\n");
+    }
+    byte[] dados = csv.toString().getBytes(StandardCharsets.UTF_8);
+    LeitorCSV escalar = new LeitorCSV(new ByteArrayInputStream(dados), ',', StandardCharsets.UTF_8, ModoVarredura.ESCALAR);
+    LeitorCSV vetorial = new LeitorCSV(new ByteArrayInputStream(dados), ',', StandardCharsets.UTF_8, ModoVarredura.VETORIAL);
+
+    int registros = 0;
+    while (escalar.proximoRegistro()) {
+      assertTrue(vetorial.proximoRegistro());
+      assertEquals(escalar.quantidadeCampos(), vetorial.quantidadeCampos());
+      for (int c = 0; c < escalar.quantidadeCampos(); c++) {
+        assertEquals(escalar.campo(c).toString(), vetorial.campo(c).toString());
+      }
+      assertEquals(escalar.posicaoFimRegistro(), vetorial.posicaoFimRegistro());
+      registros++;
+    }
+    assertFalse(vetorial.proximoRegistro());
+    assertEquals(300, registros);
+
+    CSVDecoderFactory factory = CSVDecoderFactory.getInstance();
+    try {
+      factory.setModoVarredura(ModoVarredura.VETORIAL);
+      assertEquals(new Cliente("Maria Santos", 98765432100L),
+          factory.createRegistrarClienteDecoder().decode("Maria Santos,98765432100"));
+    } finally {
+      factory.setModoVarredura(ModoVarredura.ESCALAR);
+    }
+  }
+
+  public void testMetricasContamRegistrosErrosELatencias() throws Exception {
+    ServicoIntegracao servico = new ServicoIntegracao(DecoderFactory.fabricaParaOrigem("csv"));
+    servico.setTratadorFalhas((posicao, bruto, causa) -> { });
+    MetricasFormato metricas = servico.getMetricas();
+    assertEquals("csv", metricas.getFormato());
+    long registrosAntes = metricas.getRegistros();
+    long errosAntes = metricas.getErros();
+    byte[] csv = "Ana,98765432100\nInvalido,abc\nBeto,12345678909\n".getBytes(StandardCharsets.UTF_8);
+
+    servico.processarClientes(new ByteArrayInputStream(csv), cliente -> { });
+
+    MetricasFormato.Instantaneo instantaneo = MetricasIngestao.getInstance().instantaneos().get("csv");
+    assertEquals(registrosAntes + 2, instantaneo.registros());
+    assertEquals(errosAntes + 1, instantaneo.erros());
+    assertTrue(instantaneo.bytes() >= csv.length);
+    assertTrue(instantaneo.latenciaLote().quantidade() >= 1);
+    assertEquals(metricas.getRegistros(), ManagementFactory.getPlatformMBeanServer()
+        .getAttribute(new ObjectName("com.gof.criacional:type=Ingestao,formato=csv"), "Registros"));
+
+    long bytesAntes = metricas.getBytes();
+    servico.processar("Conceição,98765432100", "001,Conta Corrente");
+    assertEquals(bytesAntes + "Conceição,98765432100".getBytes(StandardCharsets.UTF_8).length
+        + "001,Conta Corrente".length(), metricas.getBytes());
+
+    Path arquivo = Files.createTempFile("clientes", ".csv");
+    Path checkpoint = Files.createTempFile("clientes", ".checkpoint");
+    try {
+      Files.write(arquivo, csv);
+      Files.delete(checkpoint);
+      for (boolean preservarOrdem : new boolean[] {true, false}) {
+        registrosAntes = metricas.getRegistros();
+        bytesAntes = metricas.getBytes();
+        long lotesAntes = metricas.instantaneo().latenciaLote().quantidade();
+        servico.processarArquivoClientesEmParalelo(arquivo, cliente -> { }, preservarOrdem);
+        assertEquals(registrosAntes + 2, metricas.getRegistros());
+        assertEquals(bytesAntes + csv.length, metricas.getBytes());
+        assertEquals(lotesAntes + 1, metricas.instantaneo().latenciaLote().quantidade());
+      }
+      registrosAntes = metricas.getRegistros();
+      errosAntes = metricas.getErros();
+      bytesAntes = metricas.getBytes();
+      servico.processamentoRetomavel(checkpoint).processarClientes(arquivo, cliente -> { });
+      assertEquals(registrosAntes + 2, metricas.getRegistros());
+      assertEquals(errosAntes + 1, metricas.getErros());
+      assertEquals(bytesAntes + csv.length, metricas.getBytes());
+    } finally {
+      Files.deleteIfExists(arquivo);
+      Files.deleteIfExists(checkpoint);
+    }
+
+    MetricasFormato lote = MetricasIngestao.getInstance().formato("teste-lote");
+    List<String> mensagens = IntStream.range(0, 1000).mapToObj(i -> "Cliente " + i + "," + Cpf.completar(1000 + i)).toList();
+    new ProcessadorLote(DecoderFactory.fabricaParaOrigem("csv"), ForkJoinPool.commonPool(), 300,
+        TratadorFalhas.PROPAGAR, lote).processarClientes(mensagens.iterator(), cliente -> { }, false);
+    assertEquals(1000, lote.getRegistros());
+    assertEquals(4, lote.instantaneo().latenciaLote().quantidade());
+
+    HistogramaLatencia histograma = new HistogramaLatencia();
+    for (long nanos = 1; nanos <= 10_000; nanos++) {
+      histograma.registrar(nanos * 1000);
+    }
+    HistogramaLatencia.Distribuicao distribuicao = histograma.distribuicao();
+    assertEquals(10_000, distribuicao.quantidade());
+    assertEquals(10_000_000, distribuicao.maximo());
+    assertEquals(5_000_000, distribuicao.p50(), 5_000_000 * 0.04);
+    assertEquals(9_900_000, distribuicao.p99(), 9_900_000 * 0.04);
+  }
+
+  public void testLogAssincronoFiltraNivelEPreservaMensagens() throws Exception {
+    ByteArrayOutputStream saida = new ByteArrayOutputStream();
+    NivelLog nivelAnterior = Log.getNivel();
+    Log.esvaziar();
+    Log.setDestino(new PrintStream(saida, true, StandardCharsets.UTF_8));
+    try {
+      Log.setNivel(NivelLog.INFO);
+      assertFalse(Log.isHabilitado(NivelLog.DEPURACAO));
+      Log.depuracao("oculta {}", "x");
+      Log.info("cliente {} conta {}", "Ana", 7);
+      Log.registrar(NivelLog.AVISO, () -> "literal {}");
+
+      Thread[] threads = new Thread[4];
+      for (int t = 0; t < threads.length; t++) {
+        int produtor = t;
+        threads[t] = new Thread(() -> {
+          for (int i = 0; i < 1000; i++) {
+            Log.info("produtor {} mensagem {}", produtor, i);
+          }
+        });
+        threads[t].start();
+      }
+      for (Thread thread : threads) {
+        thread.join();
+      }
+      Log.esvaziar();
+    } finally {
+      Log.setDestino(null);
+      Log.setNivel(nivelAnterior);
+    }
+
+    List<String> linhas = saida.toString(StandardCharsets.UTF_8).lines().toList();
+    assertEquals(4002, linhas.size());
+    assertEquals("cliente Ana conta 7", linhas.get(0));
+    assertEquals("AVISO literal {}", linhas.get(1));
+    assertTrue(linhas.contains("produtor 3 mensagem 999"));
+  }
+
+  public void testGravadorLoteAgrupaPorTamanhoEPorTempo() throws Exception {
+    List<Integer> tamanhos = new CopyOnWriteArrayList<>();
+    Armazenamento<Object> contador = new Armazenamento<>() {
+      @Override
+      public void gravarLote(List<?> registros) {
+        tamanhos.add(registros.size());
+      }
+
+      @Override
+      public void close() {
+      }
+    };
+    try (GravadorLote<Object> gravador = new GravadorLote<>(contador, 1000, Duration.ofMinutes(1), 4000)) {
+      for (int i = 0; i < 2500; i++) {
+        gravador.accept(i);
+      }
+    }
+    assertEquals(2500, tamanhos.stream().mapToInt(Integer::intValue).sum());
+    assertEquals(Integer.valueOf(1000), tamanhos.get(0));
+
+    tamanhos.clear();
+    try (GravadorLote<Object> gravador = new GravadorLote<>(contador, 1000, Duration.ofMillis(20), 4000)) {
+      gravador.accept("a");
+      gravador.accept("b");
+      long limite = System.nanoTime() + 5_000_000_000L;
+      while (gravador.getGravados() < 2 && System.nanoTime() < limite) {
+        Thread.sleep(5);
+      }
+      assertEquals(1, gravador.getLotes());
+    }
+    assertEquals(List.of(2), tamanhos);
+
+    Path arquivo = Files.createTempFile("clientes", ".csv");
+    try {
+      ServicoIntegracao servico = new ServicoIntegracao(DecoderFactory.fabricaParaOrigem("csv"));
+      String csv = "\"Silva, Ana\",98765432100\nBeto,12345678909\n";
+      try (GravadorLote<Cliente> gravador = new GravadorLote<>(ArmazenamentoArquivo.clientes(arquivo), 10,
+          Duration.ofSeconds(1), 100)) {
+        servico.processarClientes(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), gravador);
+      }
+      assertEquals(csv, Files.readString(arquivo));
+    } finally {
+      Files.deleteIfExists(arquivo);
+    }
+  }
+
+  public void testGravadorLoteGravaTodoRegistroAceitoDuranteOFechamento() throws Exception {
+    AtomicInteger gravados = new AtomicInteger();
+    Armazenamento<Object> contador = new Armazenamento<>() {
+      @Override
+      public void gravarLote(List<?> registros) {
+        gravados.addAndGet(registros.size());
+      }
+
+      @Override
+      public void close() {
+      }
+    };
+    for (int rodada = 0; rodada < 20; rodada++) {
+      gravados.set(0);
+      AtomicInteger aceitos = new AtomicInteger();
+      GravadorLote<Object> gravador = new GravadorLote<>(contador, 100, Duration.ofMillis(10), 1000);
+      Thread[] produtores = new Thread[4];
+      for (int t = 0; t < produtores.length; t++) {
+        produtores[t] = new Thread(() -> {
+          try {
+            while (true) {
+              gravador.accept("x");
+              aceitos.incrementAndGet();
+            }
+          } catch (IllegalStateException e) {
+            // Gravador fechado
+          }
+        });
+        produtores[t].start();
+      }
+      Thread.sleep(2);
+      gravador.close();
+      for (Thread produtor : produtores) {
+        produtor.join();
+      }
+      assertEquals(aceitos.get(), gravados.get());
+    }
+  }
+
+  public void testArquivoDivididoEmTrechosDecodificaEmParaleloNaOrdem() throws Exception {
+    StringBuilder csv = new StringBuilder();
+    StringBuilder fixo = new StringBuilder();
+    List<Long> cpfs = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      long cpf = Cpf.completar(1000 + i);
+      cpfs.add(cpf);
+      // Nomes com quebra de linha e aspas obrigam o divisor a respeitar as aspas
+      String nome = i % 7 == 0 ? "\"Silva,\n\"\"Ana\"\"\r\n " + i + "\"" : "Cliente " + i;
+      csv.append(nome).append(',').append(cpf).append(i % 3 == 0 ? "\r\n" : "\n");
+      fixo.append(String.format("%-18s%011d%n", "Cliente " + i, cpf));
+    }
+    Path arquivoCSV = Files.createTempFile("clientes", ".csv");
+    Path arquivoFixo = Files.createTempFile("clientes", ".txt");
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      Files.writeString(arquivoCSV, csv, StandardCharsets.UTF_8);
+      Files.writeString(arquivoFixo, fixo, StandardCharsets.ISO_8859_1);
+
+      long[] limites = new RegistrarClienteCSVDecoder().dividirArquivo(arquivoCSV, 100).limites();
+      assertTrue(limites.length > 50);
+      assertEquals(Files.size(arquivoCSV), limites[limites.length - 1]);
+      if (ModoVarredura.VETORIAL.isDisponivel()) {
+        long[] vetoriais = new RegistrarClienteCSVDecoder(ModoVarredura.VETORIAL).dividirArquivo(arquivoCSV, 100).limites();
+        assertTrue(Arrays.equals(limites, vetoriais));
+      }
+
+      for (Path arquivo : List.of(arquivoCSV, arquivoFixo)) {
+        DecoderFactory factory = DecoderFactory.fabricaParaOrigem(arquivo == arquivoCSV ? "csv" : "fixo");
+        for (ProcessadorArquivoParalelo processador : List.of(
+            new ProcessadorArquivoParalelo(factory, pool, 100, TratadorFalhas.PROPAGAR),
+            new ProcessadorArquivoParalelo(factory, null, 100, TratadorFalhas.PROPAGAR))) {
+          List<Cliente> ordenados = new ArrayList<>();
+          assertEquals(500, processador.processarClientes(arquivo, ordenados::add, true));
+          assertEquals(cpfs, ordenados.stream().map(Cliente::cpf).toList());
+
+          ConcurrentLinkedQueue<Cliente> soltos = new ConcurrentLinkedQueue<>();
+          assertEquals(500, processador.processarClientes(arquivo, soltos::add, false));
+          assertEquals(500, soltos.size());
+        }
+      }
+    } finally {
+      pool.shutdown();
+      Files.deleteIfExists(arquivoCSV);
+      Files.deleteIfExists(arquivoFixo);
+    }
+  }
+
+  public void testFalhaEmUmTrechoParaOsOutrosAntesDeRetornar() throws Exception {
+    StringBuilder csv = new StringBuilder();
+    for (int i = 0; i < 2000; i++) {
+      csv.append("Cliente ").append(i).append(',').append(Cpf.completar(1000 + i)).append('\n');
+    }
+    Path arquivo = Files.createTempFile("clientes", ".csv");
+    try {
+      Files.writeString(arquivo, csv, StandardCharsets.UTF_8);
+      ProcessadorArquivoParalelo processador = new ProcessadorArquivoParalelo(
+          DecoderFactory.fabricaParaOrigem("csv"), null, 100, TratadorFalhas.PROPAGAR);
+      AtomicInteger entregues = new AtomicInteger();
+      try {
+        processador.processarClientes(arquivo, cliente -> {
+          if (entregues.incrementAndGet() == 50) {
+            throw new IllegalStateException("destino fora do ar");
+          }
+        }, false);
+        fail("A falha do destino deveria ser propagada");
+      } catch (IllegalStateException e) {
+        assertEquals("destino fora do ar", e.getMessage());
+      }
+      int aposRetorno = entregues.get();
+      assertTrue(aposRetorno < 2000);
+      Thread.sleep(50);
+      assertEquals(aposRetorno, entregues.get());
+    } finally {
+      Files.deleteIfExists(arquivo);
+    }
+  }
+
+  public void testDeduplicacaoDescartaCpfsRepetidosEntreExecucoes() throws Exception {
+    List<Cliente> gravados = new ArrayList<>();
+    IndiceCpf memoria = IndiceCpf.emMemoria();
+    DeduplicacaoClientes deduplicacao = new DeduplicacaoClientes(memoria, gravados::add);
+    deduplicacao.accept(new Cliente("Ana", 98765432100L));
+    deduplicacao.accept(new Cliente("Beto", 12345678909L));
+    deduplicacao.accept(new Cliente("Ana de novo", 98765432100L));
+    assertEquals(List.of("Ana", "Beto"), gravados.stream().map(Cliente::nome).toList());
+    assertEquals(1, deduplicacao.getDuplicados());
+    assertEquals(2, memoria.quantidade());
+
+    Thread[] threads = new Thread[4];
+    AtomicInteger novos = new AtomicInteger();
+    for (int t = 0; t < threads.length; t++) {
+      threads[t] = new Thread(() -> {
+        for (int i = 0; i < 10_000; i++) {
+          if (memoria.adicionar(Cpf.completar(500_000 + i))) {
+            novos.incrementAndGet();
+          }
+        }
+      });
+      threads[t].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertEquals(10_000, novos.get());
+
+    Path arquivo = Files.createTempFile("cpfs", ".idx");
+    Files.delete(arquivo);
+    try {
+      try (IndiceCpf indice = IndiceCpf.emArquivo(arquivo)) {
+        assertTrue(indice.adicionar(45612378955L));
+      }
+      try (IndiceCpf indice = IndiceCpf.emArquivo(arquivo)) {
+        assertEquals(1, indice.quantidade());
+        assertTrue(indice.contem(45612378955L));
+        assertFalse(indice.adicionar(45612378955L));
+      }
+      try {
+        memoria.adicionar(12345678900L);
+        fail("CPF inválido deveria ser rejeitado");
+      } catch (IllegalArgumentException e) {
+        assertTrue(e.getMessage().contains("12345678900"));
+      }
+    } finally {
+      Files.deleteIfExists(arquivo);
+    }
+  }
+
+  public void testDeduplicacaoNaoMarcaCpfQuandoODestinoFalha() throws Exception {
+    IndiceCpf indice = IndiceCpf.emMemoria();
+    List<Cliente> gravados = new ArrayList<>();
+    DeduplicacaoClientes deduplicacao = new DeduplicacaoClientes(indice, cliente -> {
+      if (cliente.nome().equals("Ana")) {
+        throw new UncheckedIOException(new IOException("disco cheio"));
+      }
+      gravados.add(cliente);
+    });
+    try {
+      deduplicacao.accept(new Cliente("Ana", 98765432100L));
+      fail("A falha do destino deveria ser propagada");
+    } catch (UncheckedIOException e) {
+      assertEquals("disco cheio", e.getCause().getMessage());
+    }
+    assertFalse(indice.contem(98765432100L));
+    deduplicacao.accept(new Cliente("Ana Maria", 98765432100L));
+    assertEquals(List.of("Ana Maria"), gravados.stream().map(Cliente::nome).toList());
+    assertTrue(indice.contem(98765432100L));
+
+    AtomicInteger chamadas = new AtomicInteger();
+    Armazenamento<Cliente> falhaNoSegundo = new Armazenamento<>() {
+      @Override
+      public void gravarLote(List<? extends Cliente> registros) throws IOException {
+        if (chamadas.incrementAndGet() == 2) {
+          throw new IOException("lote perdido");
+        }
+      }
+
+      @Override
+      public void close() {
+      }
+    };
+    GravadorLote<Cliente> gravador = new GravadorLote<>(falhaNoSegundo, 1, Duration.ofSeconds(1), 10);
+    DeduplicacaoClientes comGravador = new DeduplicacaoClientes(indice, gravador);
+    comGravador.accept(new Cliente("Beto", 12345678909L));
+    long limite = System.nanoTime() + 5_000_000_000L;
+    while (gravador.getGravados() < 1 && System.nanoTime() < limite) {
+      Thread.sleep(5);
+    }
+    assertTrue(indice.contem(12345678909L));
+    comGravador.accept(new Cliente("Pedro", 45612378955L));
+    try {
+      gravador.close();
+      fail("A falha do lote deveria ser propagada");
+    } catch (IOException e) {
+      assertEquals("lote perdido", e.getCause().getMessage());
+    }
+    assertFalse(indice.contem(45612378955L));
+    assertEquals(2, indice.quantidade());
+  }
+
+  private static DetectorOrigem.Deteccao detectar(String conteudo) throws Exception {
+    return DetectorOrigem.detectar(new ByteArrayInputStream(conteudo.getBytes(StandardCharsets.UTF_8)));
+  }
 }
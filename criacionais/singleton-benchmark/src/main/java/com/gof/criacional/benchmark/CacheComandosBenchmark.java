@@ -0,0 +1,90 @@
+package com.gof.criacional.benchmark;
+
+import com.gof.criacional.ConexaoEmprestada;
+import com.gof.criacional.ConexaoSimulada;
+import com.gof.criacional.PoolConexoes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Empréstimo + execução de um conjunto pequeno de queries repetidas, com e sem
+ * o cache de comandos preparados do {@link PoolConexoes}.
+ *
+ * {@code preparoMicros} é o custo simulado da ida ao banco em cada preparo; com
+ * 0 sobra só a análise do SQL pelo driver. Ao final de cada rodada a taxa de
+ * acerto do cache é impressa.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheComandosBenchmark {
+  private static final String[] QUERIES = {
+      "SELECT * FROM usuarios WHERE id = ?",
+      "SELECT nome, email FROM usuarios WHERE email = ?",
+      "SELECT * FROM contas WHERE cliente_id = ? AND ativa = ?",
+      "UPDATE contas SET saldo = saldo + ? WHERE id = ?",
+      "INSERT INTO movimentos (conta_id, valor, descricao) VALUES (?, ?, ?)",
+      "SELECT COUNT(*) FROM movimentos WHERE conta_id = ?",
+      "DELETE FROM sessoes WHERE usuario_id = ?",
+      "SELECT * FROM produtos WHERE categoria = ? ORDER BY preco LIMIT ?"
+  };
+  private static final Object[][] PARAMETROS = {
+      {42},
+      {"ana@exemplo.com"},
+      {7, true},
+      {100.5, 7},
+      {7, 100.5, "Depósito"},
+      {7},
+      {42},
+      {"livros", 20}
+  };
+
+  @Param({"0", "64"})
+  public int capacidadeCache;
+
+  @Param({"0", "50"})
+  public int preparoMicros;
+
+  private PoolConexoes pool;
+  private int proxima;
+
+  @Setup(Level.Trial)
+  public void abrirPool() {
+    Map<String, String> configuracoes = Map.of("simulacao.preparoMicros", String.valueOf(preparoMicros));
+    pool = new PoolConexoes(ConexaoSimulada::new, configuracoes, 1, 1,
+        Duration.ofSeconds(5), Duration.ofMinutes(5), capacidadeCache);
+  }
+
+  @TearDown(Level.Trial)
+  public void fecharPool() {
+    System.out.println("Cache de comandos: " + pool.getEstatisticasCache());
+    pool.fechar();
+  }
+
+  @Benchmark
+  public void executarQuery() {
+    int i = proxima;
+    proxima = (i + 1) % QUERIES.length;
+    try (ConexaoEmprestada conexao = pool.emprestar()) {
+      conexao.executar(QUERIES[i], PARAMETROS[i]);
+    }
+  }
+}
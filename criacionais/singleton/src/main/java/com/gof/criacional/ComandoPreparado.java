@@ -0,0 +1,11 @@
+package com.gof.criacional;
+
+/**
+ * Comando SQL já preparado pelo driver, executado com parâmetros ligados aos {@code ?}.
+ */
+public interface ComandoPreparado {
+    
+    void executar(Object... parametros);
+    
+    void fechar();
+}
@@ -0,0 +1,22 @@
+package com.gof.criacional;
+
+/**
+ * Conexão física com o banco de dados, como o driver a entrega.
+ * 
+ * O pool só precisa saber executar, preparar, validar e fechar; quem implementa
+ * pode ser um driver real ou a {@link ConexaoSimulada} dos exemplos.
+ */
+public interface Conexao {
+    
+    boolean isValida();
+    
+    void executar(String query);
+    
+    /**
+     * Prepara o comando no banco: análise e plano feitos uma vez, para
+     * executar muitas vezes com parâmetros diferentes.
+     */
+    ComandoPreparado preparar(String sql);
+    
+    void fechar();
+}
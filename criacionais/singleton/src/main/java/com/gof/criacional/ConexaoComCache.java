@@ -0,0 +1,189 @@
+package com.gof.criacional;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Decorator que guarda os comandos preparados de uma conexão do pool.
+ * 
+ * O cache pertence à conexão física, como nos drivers JDBC: um comando
+ * preparado só vale na conexão que o preparou. A chave é o SQL normalizado,
+ * mas o driver recebe o SQL como a aplicação escreveu; quando o cache enche o comando usado há mais tempo é fechado (LRU).
+ * Como cada conexão emprestada fica com uma thread só, o cache não precisa
+ * de lock; as estatísticas são somadas para o pool inteiro.
+ * 
+ * Os comandos devolvidos por {@link #preparar(String)} têm fechamento lógico:
+ * {@code fechar()} não faz nada, e o comando real só é fechado quando sai do
+ * cache ou quando a conexão fecha.
+ */
+final class ConexaoComCache implements Conexao {
+    
+    private static final int NORMAL = 0;
+    private static final int LITERAL = 1;
+    private static final int IDENTIFICADOR = 2;
+    private static final int COMENTARIO_LINHA = 3;
+    private static final int ABRINDO_COMENTARIO = 4;
+    private static final int COMENTARIO_BLOCO = 5;
+    private static final int FECHANDO_COMENTARIO = 6;
+    
+    private final Conexao conexao;
+    private final EstatisticasCache estatisticas;
+    private final Map<String, ComandoEmCache> comandos;
+    
+    ConexaoComCache(Conexao conexao, int capacidade, EstatisticasCache estatisticas) {
+        if (capacidade < 1) {
+            throw new IllegalArgumentException("Capacidade do cache de comandos deve ser positiva: " + capacidade);
+        }
+        this.conexao = conexao;
+        this.estatisticas = estatisticas;
+        this.comandos = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ComandoEmCache> maisAntigo) {
+                if (size() <= capacidade) {
+                    return false;
+                }
+                maisAntigo.getValue().comando.fechar();
+                estatisticas.contarDespejo();
+                return true;
+            }
+        };
+    }
+    
+    @Override
+    public boolean isValida() {
+        return conexao.isValida();
+    }
+    
+    @Override
+    public void executar(String query) {
+        conexao.executar(query);
+    }
+    
+    @Override
+    public ComandoPreparado preparar(String sql) {
+        String chave = normalizar(sql);
+        ComandoEmCache emCache = comandos.get(chave);
+        if (emCache != null) {
+            estatisticas.contarAcerto();
+            return emCache;
+        }
+        estatisticas.contarFalta();
+        emCache = new ComandoEmCache(conexao.preparar(sql));
+        comandos.put(chave, emCache);
+        return emCache;
+    }
+    
+    @Override
+    public void fechar() {
+        for (ComandoEmCache emCache : comandos.values()) {
+            emCache.comando.fechar();
+        }
+        comandos.clear();
+        conexao.fechar();
+    }
+    
+    /**
+     * Junta espaços em branco seguidos e remove o ';' final, para que a mesma
+     * query escrita com outra formatação use o mesmo comando. Literais
+     * ({@code '...'}), identificadores entre aspas ({@code "..."}) e comentários
+     * ficam como estão; a quebra de linha que fecha um comentário {@code --}
+     * também, senão o resto da query viraria comentário.
+     */
+    static String normalizar(String sql) {
+        if (isNormalizado(sql)) {
+            // Caso comum: a própria constante da aplicação, com o hash já calculado
+            return sql;
+        }
+        StringBuilder normalizado = new StringBuilder(sql.length());
+        int estado = NORMAL;
+        boolean espacoPendente = false;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (estado == NORMAL && Character.isWhitespace(c)) {
+                int tamanho = normalizado.length();
+                espacoPendente = tamanho > 0 && normalizado.charAt(tamanho - 1) != '\n';
+                continue;
+            }
+            if (espacoPendente) {
+                normalizado.append(' ');
+                espacoPendente = false;
+            }
+            estado = proximoEstado(estado, sql, i);
+            normalizado.append(c);
+        }
+        int fim = normalizado.length();
+        while (fim > 0 && estado == NORMAL && (normalizado.charAt(fim - 1) == ';' || normalizado.charAt(fim - 1) == ' ')) {
+            fim--;
+        }
+        normalizado.setLength(fim);
+        return normalizado.toString();
+    }
+    
+    private static boolean isNormalizado(String sql) {
+        int tamanho = sql.length();
+        if (tamanho == 0) {
+            return true;
+        }
+        int estado = NORMAL;
+        char anterior = 0;
+        for (int i = 0; i < tamanho; i++) {
+            char c = sql.charAt(i);
+            if (estado == NORMAL && Character.isWhitespace(c)
+                    && (i == 0 || c != ' ' || anterior == ' ' || anterior == '\n')) {
+                return false;
+            }
+            estado = proximoEstado(estado, sql, i);
+            anterior = c;
+        }
+        return estado != NORMAL || (anterior != ' ' && anterior != ';');
+    }
+    
+    // Onde a varredura está depois de ler sql[i]
+    private static int proximoEstado(int estado, String sql, int i) {
+        char c = sql.charAt(i);
+        char seguinte = i + 1 < sql.length() ? sql.charAt(i + 1) : 0;
+        switch (estado) {
+            case NORMAL:
+                if (c == '\'') {
+                    return LITERAL;
+                }
+                if (c == '"') {
+                    return IDENTIFICADOR;
+                }
+                if (c == '-' && seguinte == '-') {
+                    return COMENTARIO_LINHA;
+                }
+                return c == '/' && seguinte == '*' ? ABRINDO_COMENTARIO : NORMAL;
+            case LITERAL:
+                return c == '\'' ? NORMAL : LITERAL;
+            case IDENTIFICADOR:
+                return c == '"' ? NORMAL : IDENTIFICADOR;
+            case COMENTARIO_LINHA:
+                return c == '\n' ? NORMAL : COMENTARIO_LINHA;
+            case FECHANDO_COMENTARIO:
+                return NORMAL;
+            default:
+                // ABRINDO_COMENTARIO consome o '*' de "/*", que não pode fechar o comentário
+                return estado == COMENTARIO_BLOCO && c == '*' && seguinte == '/' ? FECHANDO_COMENTARIO : COMENTARIO_BLOCO;
+        }
+    }
+    
+    private static final class ComandoEmCache implements ComandoPreparado {
+        
+        private final ComandoPreparado comando;
+        
+        private ComandoEmCache(ComandoPreparado comando) {
+            this.comando = comando;
+        }
+        
+        @Override
+        public void executar(Object... parametros) {
+            comando.executar(parametros);
+        }
+        
+        @Override
+        public void fechar() {
+            // Continua no cache para a próxima execução
+        }
+    }
+}
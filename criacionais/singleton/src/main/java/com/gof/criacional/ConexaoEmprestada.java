@@ -0,0 +1,44 @@
+package com.gof.criacional;
+
+/**
+ * Conexão emprestada do {@link PoolConexoes}.
+ * 
+ * Fechar devolve a conexão ao pool em vez de encerrá-la, então o uso
+ * esperado é com try-with-resources. Cada empréstimo pertence a uma única
+ * thread e não pode ser usado depois de devolvido.
+ */
+public final class ConexaoEmprestada implements AutoCloseable {
+    
+    private final PoolConexoes pool;
+    private final Conexao conexao;
+    private boolean devolvida;
+    
+    ConexaoEmprestada(PoolConexoes pool, Conexao conexao) {
+        this.pool = pool;
+        this.conexao = conexao;
+    }
+    
+    /**
+     * Prepara e executa o comando, ligando os parâmetros aos {@code ?} na ordem.
+     * Se o pool tiver cache de comandos, o preparo é reaproveitado entre execuções.
+     */
+    public void executar(String sql, Object... parametros) {
+        if (devolvida) {
+            throw new IllegalStateException("Conexão já devolvida ao pool");
+        }
+        ComandoPreparado comando = conexao.preparar(sql);
+        try {
+            comando.executar(parametros);
+        } finally {
+            comando.fechar();
+        }
+    }
+    
+    @Override
+    public void close() {
+        if (!devolvida) {
+            devolvida = true;
+            pool.devolver(conexao);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.gof.criacional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Driver simulado usado nos exemplos e testes, no lugar de um banco real.
+ * 
+ * A chave {@code simulacao.latenciaMs} faz cada query demorar o tempo indicado,
+ * o que permite observar queries concorrentes rodando em conexões diferentes.
+ * {@code simulacao.preparoMicros} simula a ida ao banco de cada preparo.
+ * 
+ * Por padrão as queries não são impressas: o {@code System.out} tem um lock
+ * próprio e serializaria as queries de todas as conexões. {@code simulacao.eco=true}
+ * imprime cada query, como na demonstração do {@code Main}.
+ */
+public class ConexaoSimulada implements Conexao {
+    
+    private final String endereco;
+    private final long latenciaMs;
+    private final long preparoNanos;
+    private final boolean eco;
+    private volatile boolean valida = true;
+    
+    public ConexaoSimulada(Map<String, String> configuracoes) {
+        this.endereco = configuracoes.getOrDefault("host", "localhost") + ":"
+                + configuracoes.getOrDefault("porta", "5432") + "/"
+                + configuracoes.getOrDefault("database", "app_db");
+        this.latenciaMs = Long.parseLong(configuracoes.getOrDefault("simulacao.latenciaMs", "0"));
+        this.preparoNanos = Long.parseLong(configuracoes.getOrDefault("simulacao.preparoMicros", "0")) * 1000;
+        this.eco = Boolean.parseBoolean(configuracoes.getOrDefault("simulacao.eco", "false"));
+    }
+    
+    @Override
+    public boolean isValida() {
+        return valida;
+    }
+    
+    @Override
+    public void executar(String query) {
+        verificarValida();
+        if (eco) {
+            System.out.println("Executando query: " + query);
+        }
+        if (latenciaMs > 0) {
+            try {
+                Thread.sleep(latenciaMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    @Override
+    public ComandoPreparado preparar(String sql) {
+        verificarValida();
+        if (preparoNanos > 0) {
+            LockSupport.parkNanos(preparoNanos);
+        }
+        return new ComandoSimulado(dividirNosParametros(sql));
+    }
+    
+    /**
+     * Simula a queda da conexão do lado do servidor.
+     */
+    public void invalidar() {
+        valida = false;
+    }
+    
+    @Override
+    public void fechar() {
+        valida = false;
+    }
+    
+    private void verificarValida() {
+        if (!valida) {
+            throw new IllegalStateException("Conexão com " + endereco + " não está mais válida");
+        }
+    }
+    
+    // Trechos entre os '?' que estão fora de literais
+    private static List<String> dividirNosParametros(String sql) {
+        List<String> trechos = new ArrayList<>();
+        boolean emLiteral = false;
+        int inicio = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                emLiteral = !emLiteral;
+            } else if (c == '?' && !emLiteral) {
+                trechos.add(sql.substring(inicio, i));
+                inicio = i + 1;
+            }
+        }
+        if (emLiteral) {
+            throw new IllegalArgumentException("Literal sem fechamento na query: " + sql);
+        }
+        trechos.add(sql.substring(inicio));
+        return trechos;
+    }
+    
+    private final class ComandoSimulado implements ComandoPreparado {
+        
+        private final List<String> trechos;
+        private boolean fechado;
+        
+        private ComandoSimulado(List<String> trechos) {
+            this.trechos = trechos;
+        }
+        
+        @Override
+        public void executar(Object... parametros) {
+            if (fechado) {
+                throw new IllegalStateException("Comando preparado já fechado");
+            }
+            if (parametros.length != trechos.size() - 1) {
+                throw new IllegalArgumentException("A query espera " + (trechos.size() - 1)
+                        + " parâmetros, mas recebeu " + parametros.length);
+            }
+            StringBuilder query = new StringBuilder(trechos.get(0));
+            for (int i = 0; i < parametros.length; i++) {
+                query.append(literal(parametros[i])).append(trechos.get(i + 1));
+            }
+            ConexaoSimulada.this.executar(query.toString());
+        }
+        
+        @Override
+        public void fechar() {
+            fechado = true;
+        }
+        
+        private String literal(Object valor) {
+            if (valor == null) {
+                return "NULL";
+            }
+            if (valor instanceof Number || valor instanceof Boolean) {
+                return valor.toString();
+            }
+            return "'" + valor.toString().replace("'", "''") + "'";
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.gof.criacional;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Configurações do {@link DatabaseConnection}, com leitura sem lock.
+ * 
+ * O estado é um mapa imutável publicado por uma referência volátil: quem lê
+ * pega o mapa atual e nunca espera. Cada escrita copia o mapa, aplica a
+ * mudança e publica a cópia (copy-on-write), então quem já pegou um retrato
+ * continua vendo um conjunto consistente de valores. As escritas são raras e
+ * serializadas entre si.
+ * 
+ * Um arquivo .properties pode ser observado com {@link #observar(Path)}: a cada
+ * alteração os valores dele são aplicados por cima dos atuais, de uma vez só.
+ * {@code Properties.load} aceita um arquivo pela metade sem erro, então a
+ * recarga espera o arquivo assentar: só aplica quando duas leituras seguidas,
+ * separadas por 50 ms, trazem o mesmo conteúdo e a mesma data
+ * de modificação. Quem grava devagar deve escrever num arquivo temporário e
+ * movê-lo por cima do observado (troca atômica).
+ */
+public final class Configuracoes implements AutoCloseable {
+    
+    private static final long ESTABILIZACAO_MS = 50;
+    private static final int MAXIMO_LEITURAS = 40;
+    
+    private volatile Map<String, String> atual = Map.of();
+    private WatchService observador;
+    
+    public String get(String chave) {
+        return atual.get(chave);
+    }
+    
+    public String getOrDefault(String chave, String padrao) {
+        return atual.getOrDefault(chave, padrao);
+    }
+    
+    /**
+     * Retrato imutável das configurações neste momento.
+     */
+    public Map<String, String> retrato() {
+        return atual;
+    }
+    
+    public synchronized void definir(String chave, String valor) {
+        Map<String, String> copia = new HashMap<>(atual);
+        copia.put(chave, valor);
+        atual = Map.copyOf(copia);
+    }
+    
+    public synchronized void remover(String chave) {
+        Map<String, String> copia = new HashMap<>(atual);
+        copia.remove(chave);
+        atual = Map.copyOf(copia);
+    }
+    
+    public synchronized void definirTodas(Map<String, String> valores) {
+        Map<String, String> copia = new HashMap<>(atual);
+        copia.putAll(valores);
+        atual = Map.copyOf(copia);
+    }
+    
+    /**
+     * Aplica os valores do arquivo sobre as configurações atuais.
+     */
+    public void carregar(Path arquivo) throws IOException {
+        aplicar(Files.readAllBytes(arquivo));
+    }
+    
+    private void aplicar(byte[] conteudo) throws IOException {
+        Properties propriedades = new Properties();
+        // Decodificador estrito: bytes inválidos em UTF-8 falham em vez de virar U+FFFD
+        propriedades.load(new StringReader(StandardCharsets.UTF_8.newDecoder()
+                .decode(ByteBuffer.wrap(conteudo)).toString()));
+        Map<String, String> valores = new HashMap<>();
+        for (String chave : propriedades.stringPropertyNames()) {
+            valores.put(chave, propriedades.getProperty(chave));
+        }
+        definirTodas(valores);
+    }
+    
+    /**
+     * Carrega o arquivo e passa a recarregá-lo sempre que ele for alterado,
+     * numa thread de fundo. Só um arquivo é observado por vez.
+     */
+    public synchronized void observar(Path arquivo) throws IOException {
+        Path absoluto = arquivo.toAbsolutePath();
+        carregar(absoluto);
+        pararObservacao();
+        WatchService servico = absoluto.getFileSystem().newWatchService();
+        absoluto.getParent().register(servico,
+                StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        observador = servico;
+        Thread.ofPlatform().daemon().name("configuracoes-observador")
+                .start(() -> recarregarAoAlterar(servico, absoluto));
+    }
+    
+    public synchronized void pararObservacao() {
+        if (observador != null) {
+            try {
+                observador.close();
+            } catch (IOException e) {
+                // O serviço já não entrega eventos; nada a recuperar
+            }
+            observador = null;
+        }
+    }
+    
+    @Override
+    public void close() {
+        pararObservacao();
+    }
+    
+    // Roda na thread de fundo
+    private void recarregarAoAlterar(WatchService servico, Path arquivo) {
+        try {
+            while (true) {
+                WatchKey chave = servico.take();
+                boolean alterado = false;
+                for (WatchEvent<?> evento : chave.pollEvents()) {
+                    if (evento.kind() == StandardWatchEventKinds.OVERFLOW
+                            || arquivo.getFileName().equals(evento.context())) {
+                        alterado = true;
+                    }
+                }
+                if (alterado && Files.exists(arquivo)) {
+                    try {
+                        if (carregarQuandoEstavel(arquivo)) {
+                            System.out.println("Configurações recarregadas de " + arquivo);
+                        } else {
+                            System.out.println("Arquivo " + arquivo + " não parou de mudar; recarga adiada");
+                        }
+                    } catch (IOException | IllegalArgumentException e) {
+                        // Sintaxe ou codificação inválida: mantém o retrato anterior
+                        System.out.println("Falha ao recarregar " + arquivo + ": " + e.getMessage());
+                    }
+                }
+                if (!chave.reset()) {
+                    return;
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // pararObservacao() encerrou o serviço
+        }
+    }
+    
+    // Um editor grava em várias escritas; um arquivo que ainda muda não é aplicado
+    private boolean carregarQuandoEstavel(Path arquivo) throws IOException, InterruptedException {
+        byte[] anterior = null;
+        FileTime modificacaoAnterior = null;
+        for (int leitura = 0; leitura < MAXIMO_LEITURAS; leitura++) {
+            FileTime modificacao = Files.getLastModifiedTime(arquivo);
+            byte[] conteudo = Files.readAllBytes(arquivo);
+            if (anterior != null && modificacao.equals(modificacaoAnterior) && Arrays.equals(anterior, conteudo)) {
+                aplicar(conteudo);
+                return true;
+            }
+            anterior = conteudo;
+            modificacaoAnterior = modificacao;
+            Thread.sleep(ESTABILIZACAO_MS);
+        }
+        return false;
+    }
+}
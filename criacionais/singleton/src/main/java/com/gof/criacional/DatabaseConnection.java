@@ -1,6 +1,8 @@
 package com.gof.criacional;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Map;
 
 /**
@@ -8,16 +10,27 @@ import java.util.Map;
  * 
  * Demonstra um caso de uso real onde Singleton é apropriado.
  * Garante uma única instância de gerenciamento de conexões.
+ * 
+ * A instância única guarda a configuração e um {@link PoolConexoes};
+ * cada query empresta uma conexão do pool, então queries concorrentes
+ * rodam em paralelo até o máximo configurado. O tamanho do pool vem das
+ * chaves {@code pool.minimo}, {@code pool.maximo}, {@code pool.timeoutMs}
+ * e {@code pool.ociosoMs}, lidas em {@link #conectar()}. Cada conexão guarda
+ * até {@code pool.cacheComandos} comandos preparados (0 desliga o cache).
+ * 
+ * As configurações ficam num {@link Configuracoes}: leituras não usam lock,
+ * e um arquivo .properties observado é recarregado a cada alteração.
  */
 public class DatabaseConnection {
     
     private static volatile DatabaseConnection instance;
-    private final Map<String, String> configuracoes;
-    private boolean conectado;
+    private final Configuracoes configuracoes;
+    private volatile FabricaConexao fabrica;
+    private volatile PoolConexoes pool;
     
     private DatabaseConnection() {
-        this.configuracoes = new HashMap<>();
-        this.conectado = false;
+        this.configuracoes = new Configuracoes();
+        this.fabrica = ConexaoSimulada::new;
         System.out.println("DatabaseConnection: Inicializando gerenciador de conexões");
     }
     
@@ -33,40 +46,109 @@ public class DatabaseConnection {
     }
     
     public void configurar(String chave, String valor) {
-        configuracoes.put(chave, valor);
+        configuracoes.definir(chave, valor);
         System.out.println("Configuração adicionada: " + chave + " = " + valor);
     }
     
-    public void conectar() {
-        if (!conectado) {
+    public void removerConfiguracao(String chave) {
+        configuracoes.remover(chave);
+    }
+    
+    /**
+     * Carrega as configurações do arquivo e as recarrega sempre que ele mudar.
+     * Mudanças nas chaves do pool valem a partir do próximo {@link #conectar()}.
+     */
+    public void observarConfiguracoes(Path arquivo) throws IOException {
+        configuracoes.observar(arquivo);
+        System.out.println("Observando configurações em " + arquivo);
+    }
+    
+    public void pararObservacaoConfiguracoes() {
+        configuracoes.pararObservacao();
+    }
+    
+    public String getConfiguracao(String chave) {
+        return configuracoes.get(chave);
+    }
+    
+    /**
+     * Retrato imutável das configurações atuais.
+     */
+    public Map<String, String> getConfiguracoes() {
+        return configuracoes.retrato();
+    }
+    
+    /**
+     * Troca o driver usado para abrir conexões. Vale a partir do próximo {@link #conectar()}.
+     */
+    public void setFabricaConexao(FabricaConexao fabrica) {
+        this.fabrica = fabrica;
+    }
+    
+    public synchronized void conectar() {
+        if (pool == null) {
+            // Um único retrato, para não misturar valores de duas recargas
+            Map<String, String> retrato = configuracoes.retrato();
             System.out.println("Conectando ao banco de dados...");
-            System.out.println("Host: " + configuracoes.getOrDefault("host", "localhost"));
-            System.out.println("Porta: " + configuracoes.getOrDefault("porta", "5432"));
-            System.out.println("Database: " + configuracoes.getOrDefault("database", "app_db"));
-            conectado = true;
-            System.out.println("Conexão estabelecida com sucesso!");
+            System.out.println("Host: " + retrato.getOrDefault("host", "localhost"));
+            System.out.println("Porta: " + retrato.getOrDefault("porta", "5432"));
+            System.out.println("Database: " + retrato.getOrDefault("database", "app_db"));
+            pool = new PoolConexoes(fabrica, retrato,
+                    inteiro(retrato, "pool.minimo", 2),
+                    inteiro(retrato, "pool.maximo", 10),
+                    Duration.ofMillis(inteiro(retrato, "pool.timeoutMs", 5000)),
+                    Duration.ofMillis(inteiro(retrato, "pool.ociosoMs", 60000)),
+                    inteiro(retrato, "pool.cacheComandos", 64));
+            System.out.println("Conexão estabelecida com sucesso! Pool de "
+                    + pool.getMinimo() + " a " + pool.getMaximo() + " conexões");
         } else {
             System.out.println("Já existe uma conexão ativa");
         }
     }
     
-    public void desconectar() {
-        if (conectado) {
+    public synchronized void desconectar() {
+        if (pool != null) {
             System.out.println("Desconectando do banco de dados...");
-            conectado = false;
+            pool.fechar();
+            pool = null;
             System.out.println("Desconectado com sucesso!");
         }
     }
     
     public boolean isConectado() {
-        return conectado;
+        return pool != null;
+    }
+    
+    /**
+     * Pool da conexão ativa, ou {@code null} se não houver conexão.
+     */
+    public PoolConexoes getPool() {
+        return pool;
     }
     
-    public void executarQuery(String query) {
-        if (conectado) {
-            System.out.println("Executando query: " + query);
+    /**
+     * Executa a query numa conexão do pool, ligando os parâmetros aos {@code ?} na ordem.
+     */
+    public void executarQuery(String query, Object... parametros) {
+        PoolConexoes atual = pool;
+        if (atual != null) {
+            try (ConexaoEmprestada conexao = atual.emprestar()) {
+                conexao.executar(query, parametros);
+            }
         } else {
             System.out.println("Erro: Não há conexão ativa");
         }
     }
+    
+    private static int inteiro(Map<String, String> retrato, String chave, int padrao) {
+        String valor = retrato.get(chave);
+        if (valor == null) {
+            return padrao;
+        }
+        try {
+            return Integer.parseInt(valor.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Configuração inválida: " + chave + " = " + valor, e);
+        }
+    }
 }
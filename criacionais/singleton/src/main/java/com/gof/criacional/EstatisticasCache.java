@@ -0,0 +1,52 @@
+package com.gof.criacional;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Acertos, faltas e despejos dos caches de comandos de todas as conexões de um pool.
+ */
+public final class EstatisticasCache {
+    
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder faltas = new LongAdder();
+    private final LongAdder despejos = new LongAdder();
+    
+    public long getAcertos() {
+        return acertos.sum();
+    }
+    
+    public long getFaltas() {
+        return faltas.sum();
+    }
+    
+    public long getDespejos() {
+        return despejos.sum();
+    }
+    
+    /**
+     * Fração dos preparos atendidos pelo cache, entre 0 e 1.
+     */
+    public double getTaxaAcerto() {
+        long atendidos = getAcertos();
+        long total = atendidos + getFaltas();
+        return total == 0 ? 0 : (double) atendidos / total;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("acertos=%d, faltas=%d, despejos=%d, taxa de acerto=%.1f%%",
+                getAcertos(), getFaltas(), getDespejos(), getTaxaAcerto() * 100);
+    }
+    
+    void contarAcerto() {
+        acertos.increment();
+    }
+    
+    void contarFalta() {
+        faltas.increment();
+    }
+    
+    void contarDespejo() {
+        despejos.increment();
+    }
+}
@@ -0,0 +1,12 @@
+package com.gof.criacional;
+
+import java.util.Map;
+
+/**
+ * Abre novas conexões físicas a partir das configurações do {@link DatabaseConnection}.
+ */
+@FunctionalInterface
+public interface FabricaConexao {
+    
+    Conexao abrir(Map<String, String> configuracoes);
+}
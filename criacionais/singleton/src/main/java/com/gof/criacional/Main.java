@@ -87,6 +87,7 @@ public class Main {
         db1.configurar("host", "localhost");
         db1.configurar("porta", "5432");
         db1.configurar("database", "singleton_demo");
+        db1.configurar("simulacao.eco", "true");
         db1.conectar();
         
         System.out.println();
@@ -99,6 +100,12 @@ public class Main {
         
         db2.executarQuery("INSERT INTO usuarios (nome) VALUES ('João')");
         
+        System.out.println("\nQueries com parâmetros reaproveitam o comando preparado:");
+        for (int id = 1; id <= 3; id++) {
+            db2.executarQuery("SELECT * FROM usuarios WHERE id = ?", id);
+        }
+        System.out.println("Cache de comandos: " + db2.getPool().getEstatisticasCache());
+        
         System.out.println();
         db2.desconectar();
     }
@@ -0,0 +1,262 @@
+package com.gof.criacional;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool limitado de conexões usado pelo {@link DatabaseConnection}.
+ * 
+ * Um semáforo com {@code maximo} permissões controla quem pode ter uma conexão:
+ * cada conexão aberta está ociosa na fila ou nas mãos de quem tem uma permissão,
+ * então o pool nunca passa do máximo. Emprestar e devolver não usam lock - a
+ * permissão é obtida por CAS quando há sobra, e as ociosas ficam numa fila sem
+ * bloqueio, usada como pilha para reaproveitar primeiro a conexão mais recente.
+ * Só quem encontra o pool esgotado espera, até o tempo limite.
+ * 
+ * Toda conexão ociosa é validada antes do empréstimo; as inválidas são fechadas
+ * e substituídas. Uma thread de fundo fecha as que ficaram ociosas por mais que
+ * o limite, sem descer abaixo do mínimo.
+ * 
+ * Com {@code capacidadeCache} positiva, cada conexão guarda seus comandos
+ * preparados num {@link ConexaoComCache}; as estatísticas do cache são do pool.
+ */
+public final class PoolConexoes implements AutoCloseable {
+    
+    private final FabricaConexao fabrica;
+    private final Map<String, String> configuracoes;
+    private final int minimo;
+    private final int maximo;
+    private final long timeoutNanos;
+    private final long ociosidadeNanos;
+    private final int capacidadeCache;
+    private final EstatisticasCache estatisticasCache = new EstatisticasCache();
+    private final Semaphore permissoes;
+    private final ConcurrentLinkedDeque<Ociosa> ociosas = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger abertas = new AtomicInteger();
+    private final LongAdder emprestimos = new LongAdder();
+    private final LongAdder esperas = new LongAdder();
+    private final LongAdder descartadas = new LongAdder();
+    private final LongAdder expiradas = new LongAdder();
+    private final ScheduledExecutorService despejo;
+    private volatile boolean fechado;
+    
+    private record Ociosa(Conexao conexao, long desde) {
+    }
+    
+    public PoolConexoes(FabricaConexao fabrica, Map<String, String> configuracoes,
+            int minimo, int maximo, Duration timeout, Duration ociosidadeMaxima) {
+        this(fabrica, configuracoes, minimo, maximo, timeout, ociosidadeMaxima, 0);
+    }
+    
+    public PoolConexoes(FabricaConexao fabrica, Map<String, String> configuracoes,
+            int minimo, int maximo, Duration timeout, Duration ociosidadeMaxima, int capacidadeCache) {
+        if (minimo < 0 || maximo < 1 || minimo > maximo) {
+            throw new IllegalArgumentException("Limites inválidos para o pool: mínimo " + minimo + ", máximo " + maximo);
+        }
+        if (timeout.isNegative() || ociosidadeMaxima.isNegative() || ociosidadeMaxima.isZero()) {
+            throw new IllegalArgumentException("Tempos do pool devem ser positivos");
+        }
+        if (capacidadeCache < 0) {
+            throw new IllegalArgumentException("Capacidade do cache de comandos não pode ser negativa: " + capacidadeCache);
+        }
+        this.fabrica = fabrica;
+        this.configuracoes = Map.copyOf(configuracoes);
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.timeoutNanos = timeout.toNanos();
+        this.ociosidadeNanos = ociosidadeMaxima.toNanos();
+        this.capacidadeCache = capacidadeCache;
+        this.permissoes = new Semaphore(maximo);
+        
+        for (int i = 0; i < minimo; i++) {
+            ociosas.offerFirst(new Ociosa(abrir(), System.nanoTime()));
+        }
+        
+        long periodo = Math.max(ociosidadeNanos / 2, TimeUnit.MILLISECONDS.toNanos(10));
+        this.despejo = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().daemon().name("pool-conexoes-despejo").factory());
+        this.despejo.scheduleWithFixedDelay(this::despejarOciosas, periodo, periodo, TimeUnit.NANOSECONDS);
+    }
+    
+    /**
+     * Empresta uma conexão válida, esperando no máximo o timeout configurado
+     * quando todas estão em uso.
+     *
+     * @throws IllegalStateException se o tempo esgotar ou o pool estiver fechado
+     */
+    public ConexaoEmprestada emprestar() {
+        verificarAberto();
+        if (!permissoes.tryAcquire()) {
+            esperas.increment();
+            try {
+                if (!permissoes.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                    throw new IllegalStateException("Tempo esgotado aguardando conexão livre (máximo " + maximo + " em uso)");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrompido aguardando conexão livre", e);
+            }
+        }
+        try {
+            verificarAberto();
+            Conexao conexao = obterValida();
+            emprestimos.increment();
+            return new ConexaoEmprestada(this, conexao);
+        } catch (RuntimeException e) {
+            permissoes.release();
+            throw e;
+        }
+    }
+    
+    /**
+     * Fecha as conexões ociosas há mais tempo que o limite, mantendo pelo menos
+     * o mínimo abertas. Roda periodicamente em segundo plano.
+     *
+     * @return quantas conexões foram fechadas
+     */
+    public int despejarOciosas() {
+        int fechadas = 0;
+        // Com a permissão, a conexão retirada da fila não some do controle do pool
+        while (abertas.get() > minimo && permissoes.tryAcquire()) {
+            try {
+                Ociosa maisAntiga = ociosas.pollLast();
+                if (maisAntiga == null) {
+                    break;
+                }
+                if (System.nanoTime() - maisAntiga.desde() < ociosidadeNanos) {
+                    ociosas.offerLast(maisAntiga);
+                    break;
+                }
+                descartar(maisAntiga.conexao());
+                expiradas.increment();
+                fechadas++;
+            } finally {
+                permissoes.release();
+            }
+        }
+        return fechadas;
+    }
+    
+    /**
+     * Fecha o pool e as conexões ociosas. As emprestadas são fechadas quando
+     * devolvidas.
+     */
+    public void fechar() {
+        if (fechado) {
+            return;
+        }
+        fechado = true;
+        despejo.shutdownNow();
+        esvaziarOciosas();
+    }
+    
+    @Override
+    public void close() {
+        fechar();
+    }
+    
+    public int getMinimo() {
+        return minimo;
+    }
+    
+    public int getMaximo() {
+        return maximo;
+    }
+    
+    public int getAbertas() {
+        return abertas.get();
+    }
+    
+    public int getOciosas() {
+        return ociosas.size();
+    }
+    
+    public int getEmUso() {
+        return maximo - permissoes.availablePermits();
+    }
+    
+    public long getEmprestimos() {
+        return emprestimos.sum();
+    }
+    
+    public long getEsperas() {
+        return esperas.sum();
+    }
+    
+    public long getDescartadas() {
+        return descartadas.sum();
+    }
+    
+    public long getExpiradas() {
+        return expiradas.sum();
+    }
+    
+    public EstatisticasCache getEstatisticasCache() {
+        return estatisticasCache;
+    }
+    
+    void devolver(Conexao conexao) {
+        if (fechado) {
+            descartar(conexao);
+        } else {
+            ociosas.offerFirst(new Ociosa(conexao, System.nanoTime()));
+            // O pool pode ter fechado entre a verificação e a devolução
+            if (fechado) {
+                esvaziarOciosas();
+            }
+        }
+        permissoes.release();
+    }
+    
+    private Conexao obterValida() {
+        Ociosa ociosa;
+        while ((ociosa = ociosas.pollFirst()) != null) {
+            if (ociosa.conexao().isValida()) {
+                return ociosa.conexao();
+            }
+            descartar(ociosa.conexao());
+            descartadas.increment();
+        }
+        return abrir();
+    }
+    
+    private Conexao abrir() {
+        abertas.incrementAndGet();
+        try {
+            Conexao conexao = fabrica.abrir(configuracoes);
+            return capacidadeCache > 0 ? new ConexaoComCache(conexao, capacidadeCache, estatisticasCache) : conexao;
+        } catch (RuntimeException e) {
+            abertas.decrementAndGet();
+            throw e;
+        }
+    }
+    
+    private void descartar(Conexao conexao) {
+        abertas.decrementAndGet();
+        try {
+            conexao.fechar();
+        } catch (RuntimeException e) {
+            // A conexão já está fora do pool; a falha ao fechar não afeta os demais
+        }
+    }
+    
+    private void esvaziarOciosas() {
+        Ociosa ociosa;
+        while ((ociosa = ociosas.pollFirst()) != null) {
+            descartar(ociosa.conexao());
+        }
+    }
+    
+    private void verificarAberto() {
+        if (fechado) {
+            throw new IllegalStateException("Pool de conexões fechado");
+        }
+    }
+}
@@ -3,8 +3,18 @@ package com.gof.criacional;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -124,4 +134,244 @@ class MainTest {
         
         assertEquals(count1 + 1, count2);
     }
+    
+    @Test
+    @DisplayName("PoolConexoes não deve passar do máximo e deve esgotar o tempo de espera")
+    void testPoolConexoesLimiteETimeout() {
+        try (PoolConexoes pool = new PoolConexoes(ConexaoSimulada::new, Map.of(), 1, 2,
+                Duration.ofMillis(50), Duration.ofMinutes(1))) {
+            assertEquals(1, pool.getAbertas());
+            
+            ConexaoEmprestada primeira = pool.emprestar();
+            ConexaoEmprestada segunda = pool.emprestar();
+            assertEquals(2, pool.getAbertas());
+            assertEquals(2, pool.getEmUso());
+            assertThrows(IllegalStateException.class, pool::emprestar);
+            assertEquals(2, pool.getAbertas());
+            
+            primeira.close();
+            try (ConexaoEmprestada terceira = pool.emprestar()) {
+                terceira.executar("SELECT 1");
+            }
+            segunda.close();
+            assertEquals(0, pool.getEmUso());
+            assertThrows(IllegalStateException.class, () -> primeira.executar("SELECT 1"));
+        }
+    }
+    
+    @Test
+    @DisplayName("PoolConexoes deve descartar conexões inválidas no empréstimo")
+    void testPoolConexoesValidacao() {
+        List<ConexaoSimulada> abertas = new CopyOnWriteArrayList<>();
+        FabricaConexao fabrica = configuracoes -> {
+            ConexaoSimulada conexao = new ConexaoSimulada(configuracoes);
+            abertas.add(conexao);
+            return conexao;
+        };
+        try (PoolConexoes pool = new PoolConexoes(fabrica, Map.of(), 1, 2,
+                Duration.ofSeconds(1), Duration.ofMinutes(1))) {
+            abertas.get(0).invalidar();
+            
+            try (ConexaoEmprestada conexao = pool.emprestar()) {
+                conexao.executar("SELECT 1");
+            }
+            
+            assertEquals(2, abertas.size());
+            assertEquals(1, pool.getAbertas());
+            assertEquals(1, pool.getDescartadas());
+        }
+    }
+    
+    @Test
+    @DisplayName("PoolConexoes deve fechar conexões ociosas sem descer do mínimo")
+    void testPoolConexoesDespejo() throws InterruptedException {
+        try (PoolConexoes pool = new PoolConexoes(ConexaoSimulada::new, Map.of(), 1, 4,
+                Duration.ofSeconds(1), Duration.ofMillis(20))) {
+            ConexaoEmprestada a = pool.emprestar();
+            ConexaoEmprestada b = pool.emprestar();
+            ConexaoEmprestada c = pool.emprestar();
+            a.close();
+            b.close();
+            c.close();
+            assertTrue(pool.getAbertas() >= 1);
+            
+            Thread.sleep(60);
+            pool.despejarOciosas();
+            
+            assertEquals(1, pool.getAbertas());
+            assertEquals(1, pool.getOciosas());
+            assertEquals(2, pool.getExpiradas());
+        }
+    }
+    
+    @Test
+    @DisplayName("DatabaseConnection deve executar queries concorrentes em conexões diferentes")
+    void testDatabaseConnectionQueriesConcorrentes() throws Exception {
+        final int threadCount = 4;
+        CyclicBarrier todasAoMesmoTempo = new CyclicBarrier(threadCount);
+        DatabaseConnection db = DatabaseConnection.getInstance();
+        db.desconectar();
+        String maximoAnterior = db.getConfiguracao("pool.maximo");
+        db.configurar("pool.maximo", String.valueOf(threadCount));
+        db.setFabricaConexao(configuracoes -> new ConexaoSimulada(configuracoes) {
+            @Override
+            public void executar(String query) {
+                try {
+                    todasAoMesmoTempo.await(5, TimeUnit.SECONDS);
+                } catch (Exception e) {
+                    throw new IllegalStateException("Queries não rodaram em paralelo", e);
+                }
+            }
+        });
+        db.conectar();
+        
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            List<Future<?>> queries = new ArrayList<>();
+            for (int i = 0; i < threadCount; i++) {
+                queries.add(executor.submit(() -> db.executarQuery("SELECT * FROM usuarios")));
+            }
+            for (Future<?> query : queries) {
+                query.get(10, TimeUnit.SECONDS);
+            }
+            assertEquals(threadCount, db.getPool().getAbertas());
+            assertEquals(0, db.getPool().getEmUso());
+        } finally {
+            executor.shutdown();
+            db.desconectar();
+            db.setFabricaConexao(ConexaoSimulada::new);
+            if (maximoAnterior != null) {
+                db.configurar("pool.maximo", maximoAnterior);
+            } else {
+                db.removerConfiguracao("pool.maximo");
+            }
+        }
+    }
+    
+    @Test
+    @DisplayName("Configuracoes deve publicar um novo retrato a cada escrita")
+    void testConfiguracoesCopyOnWrite() {
+        Configuracoes configuracoes = new Configuracoes();
+        configuracoes.definir("host", "localhost");
+        Map<String, String> antes = configuracoes.retrato();
+        
+        configuracoes.definir("host", "db.interno");
+        
+        assertEquals("localhost", antes.get("host"));
+        assertEquals("db.interno", configuracoes.get("host"));
+        assertThrows(UnsupportedOperationException.class, () -> configuracoes.retrato().put("porta", "1"));
+    }
+    
+    @Test
+    @DisplayName("Configuracoes deve recarregar o arquivo observado quando ele mudar")
+    void testConfiguracoesRecarga() throws Exception {
+        Path diretorio = Files.createTempDirectory("configuracoes");
+        Path arquivo = diretorio.resolve("banco.properties");
+        Files.writeString(arquivo, "host=localhost\npool.maximo=4\n");
+        
+        try (Configuracoes configuracoes = new Configuracoes()) {
+            configuracoes.observar(arquivo);
+            assertEquals("4", configuracoes.get("pool.maximo"));
+            
+            // Gravado em duas escritas: a primeira metade não pode ser aplicada sozinha
+            Files.writeString(arquivo, "host=db.interno\npool.max");
+            Files.writeString(arquivo, "imo=8\n", StandardOpenOption.APPEND);
+            
+            long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (!"8".equals(configuracoes.get("pool.maximo")) && System.nanoTime() < limite) {
+                Thread.sleep(20);
+            }
+            assertEquals("8", configuracoes.get("pool.maximo"));
+            assertEquals("db.interno", configuracoes.get("host"));
+            assertNull(configuracoes.get("pool.max"));
+        } finally {
+            Files.deleteIfExists(arquivo);
+            Files.deleteIfExists(diretorio);
+        }
+    }
+    
+    @Test
+    @DisplayName("Cache de comandos deve reaproveitar o preparo da mesma query normalizada")
+    void testCacheComandosAcertos() {
+        List<String> executadas = new CopyOnWriteArrayList<>();
+        FabricaConexao fabrica = configuracoes -> new ConexaoSimulada(configuracoes) {
+            @Override
+            public void executar(String query) {
+                executadas.add(query);
+            }
+        };
+        try (PoolConexoes pool = new PoolConexoes(fabrica, Map.of(), 1, 1,
+                Duration.ofSeconds(1), Duration.ofMinutes(1), 8)) {
+            try (ConexaoEmprestada conexao = pool.emprestar()) {
+                conexao.executar("SELECT * FROM usuarios WHERE id = ?", 1);
+                conexao.executar("SELECT *  FROM usuarios\n WHERE id = ?;", 2);
+                conexao.executar("SELECT * FROM usuarios WHERE nome = ?", "D'Ávila");
+                assertThrows(IllegalArgumentException.class,
+                        () -> conexao.executar("SELECT * FROM usuarios WHERE id = ?"));
+            }
+            
+            EstatisticasCache estatisticas = pool.getEstatisticasCache();
+            assertEquals(2, estatisticas.getFaltas());
+            assertEquals(2, estatisticas.getAcertos());
+            assertEquals(List.of(
+                    "SELECT * FROM usuarios WHERE id = 1",
+                    "SELECT * FROM usuarios WHERE id = 2",
+                    "SELECT * FROM usuarios WHERE nome = 'D''Ávila'"), executadas);
+        }
+    }
+    
+    @Test
+    @DisplayName("Cache de comandos deve preparar o SQL original e respeitar comentários e identificadores")
+    void testCacheComandosComentarioDeLinha() {
+        List<String> executadas = new CopyOnWriteArrayList<>();
+        FabricaConexao fabrica = configuracoes -> new ConexaoSimulada(configuracoes) {
+            @Override
+            public void executar(String query) {
+                executadas.add(query);
+            }
+        };
+        try (PoolConexoes pool = new PoolConexoes(fabrica, Map.of(), 1, 1,
+                Duration.ofSeconds(1), Duration.ofMinutes(1), 8)) {
+            try (ConexaoEmprestada conexao = pool.emprestar()) {
+                conexao.executar("SELECT nome -- coluna\n  FROM usuarios WHERE id = ?", 1);
+                conexao.executar("SELECT nome -- coluna FROM usuarios WHERE id = ?", 2);
+            }
+            
+            assertEquals(2, pool.getEstatisticasCache().getFaltas());
+            assertEquals(List.of(
+                    "SELECT nome -- coluna\n  FROM usuarios WHERE id = 1",
+                    "SELECT nome -- coluna FROM usuarios WHERE id = 2"), executadas);
+        }
+        assertEquals("SELECT 1 -- c\nFROM t", ConexaoComCache.normalizar("SELECT 1 -- c\n   FROM t;"));
+        assertEquals("SELECT \"a  b\" FROM t", ConexaoComCache.normalizar("SELECT  \"a  b\" FROM t"));
+        assertEquals("SELECT /*+ a  b */ 1", ConexaoComCache.normalizar("SELECT\t/*+ a  b */ 1"));
+        assertEquals("SELECT /*/ a */ 1", ConexaoComCache.normalizar("SELECT /*/ a */  1"));
+    }
+    
+    @Test
+    @DisplayName("Cache de comandos deve despejar o menos usado e ser separado por conexão")
+    void testCacheComandosDespejoPorConexao() {
+        try (PoolConexoes pool = new PoolConexoes(ConexaoSimulada::new, Map.of(),
+                2, 2, Duration.ofSeconds(1), Duration.ofMinutes(1), 2)) {
+            EstatisticasCache estatisticas = pool.getEstatisticasCache();
+            try (ConexaoEmprestada primeira = pool.emprestar();
+                    ConexaoEmprestada segunda = pool.emprestar()) {
+                primeira.executar("SELECT 1");
+                segunda.executar("SELECT 1");
+                assertEquals(2, estatisticas.getFaltas());
+                
+                primeira.executar("SELECT 2");
+                primeira.executar("SELECT 1");
+                primeira.executar("SELECT 3");
+                assertEquals(1, estatisticas.getDespejos());
+                
+                primeira.executar("SELECT 1");
+                primeira.executar("SELECT 2");
+                assertEquals(2, estatisticas.getAcertos());
+                assertEquals(5, estatisticas.getFaltas());
+            }
+        }
+        assertEquals("SELECT 1", ConexaoComCache.normalizar("  SELECT\t1 ; "));
+        assertEquals("SELECT 'a  b'", ConexaoComCache.normalizar("SELECT   'a  b'"));
+    }
 }